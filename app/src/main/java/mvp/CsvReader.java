@@ -0,0 +1,378 @@
+package mvp;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Streaming CSV reader over a memory-mapped UTF-8 file.
+ *
+ * Records are scanned directly in the mapped bytes; each field is kept as
+ * a start/end offset pair, so numeric fields are parsed without building
+ * Strings and only the text columns a caller asks for are decoded. Quoted
+ * fields (RFC 4180 style, with "" escapes) and CRLF line endings are
+ * supported. Files larger than one mapping window are read window by
+ * window, remapping at the start of the record that crosses a boundary.
+ */
+class CsvReader implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long length;
+    private final long windowSize;
+    private MappedByteBuffer buffer;
+    private long windowStart;
+    private int pos;
+
+    // Current record
+    private int fieldCount;
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private boolean[] escaped = new boolean[64];
+    private boolean firstQuoted;
+    private long lineNumber;
+
+    private final String[] header;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private byte[] scratch = new byte[128];
+
+    CsvReader(Path file) throws IOException {
+        this(file, WINDOW_SIZE);
+    }
+
+    CsvReader(Path file, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.length = channel.size();
+        this.windowSize = windowSize;
+
+        try {
+            map(0);
+            skipByteOrderMark();
+            if (!next()) {
+                throw new IOException("Empty CSV file: " + file);
+            }
+            header = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                header[i] = getString(i).trim();
+                columns.putIfAbsent(header[i], i);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        long size = Math.min(windowSize, length - offset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+        pos = 0;
+    }
+
+    private void skipByteOrderMark() {
+        if (buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+            pos = 3;
+        }
+    }
+
+    /** Header names in file order. */
+    String[] header() {
+        return header.clone();
+    }
+
+    /** Index of the named column, or -1 if the header does not contain it. */
+    int column(String name) {
+        Integer index = columns.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /** Total file size in bytes. */
+    long length() {
+        return length;
+    }
+
+    /** Byte offset of the next unread record. */
+    long position() {
+        return windowStart + pos;
+    }
+
+    /** 1-based line number of the current record (counting the header). */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Continues reading at the given byte offset, which must be the start of
+     * a record (e.g. the previous end of a file that has since grown). Line
+     * numbers then count from that point.
+     */
+    void seek(long offset) throws IOException {
+        if (offset < 0 || offset > length) {
+            throw new IllegalArgumentException("Offset " + offset + " outside file of " + length + " bytes");
+        }
+        map(offset);
+        lineNumber = 0;
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return false at end of file
+     */
+    boolean next() throws IOException {
+        while (true) {
+            if (windowStart + pos >= length) {
+                return false;
+            }
+            if (scanRecord()) {
+                lineNumber++;
+                if (fieldCount == 1 && starts[0] == ends[0] && !firstQuoted) {
+                    continue; // blank line
+                }
+                return true;
+            }
+            // The record runs past this window; remap starting at the record
+            if (pos == 0) {
+                throw new IOException("Record at offset " + windowStart
+                    + " exceeds the " + windowSize + " byte mapping window");
+            }
+            map(windowStart + pos);
+        }
+    }
+
+    // Scans one record starting at pos. Returns false if it needs more bytes.
+    private boolean scanRecord() throws IOException {
+        MappedByteBuffer buf = buffer;
+        int limit = buf.limit();
+        boolean lastWindow = windowStart + limit >= length;
+        int i = pos;
+        fieldCount = 0;
+        firstQuoted = false;
+
+        while (true) {
+            if (i >= limit) {
+                if (!lastWindow) return false;
+                addField(i, i, false);
+                pos = i;
+                return true;
+            }
+
+            if (buf.get(i) == '"') {
+                firstQuoted |= fieldCount == 0;
+                int start = i + 1;
+                int j = start;
+                boolean hasEscapes = false;
+                while (true) {
+                    if (j >= limit) {
+                        if (lastWindow) {
+                            throw new IOException("Unterminated quoted field at offset " + (windowStart + i));
+                        }
+                        return false;
+                    }
+                    if (buf.get(j) == '"') {
+                        if (j + 1 < limit && buf.get(j + 1) == '"') {
+                            hasEscapes = true;
+                            j += 2;
+                            continue;
+                        }
+                        if (j + 1 >= limit && !lastWindow) return false;
+                        break;
+                    }
+                    j++;
+                }
+                addField(start, j, hasEscapes);
+                i = j + 1;
+            } else {
+                int j = i;
+                byte b;
+                while (j < limit && (b = buf.get(j)) != ',' && b != '\n' && b != '\r') {
+                    j++;
+                }
+                addField(i, j, false);
+                i = j;
+            }
+
+            // Delimiter after the field
+            if (i >= limit) {
+                if (!lastWindow) return false;
+                pos = i;
+                return true;
+            }
+            byte d = buf.get(i);
+            if (d == ',') {
+                i++;
+            } else if (d == '\n') {
+                pos = i + 1;
+                return true;
+            } else if (d == '\r') {
+                i++;
+                if (i < limit) {
+                    if (buf.get(i) == '\n') i++;
+                } else if (!lastWindow) {
+                    return false;
+                }
+                pos = i;
+                return true;
+            } else {
+                throw new IOException("Unexpected character after quoted field at offset " + (windowStart + i));
+            }
+        }
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    boolean isEmpty(int field) {
+        if (field >= fieldCount) return true;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            if (buffer.get(i) != ' ') return false;
+        }
+        return true;
+    }
+
+    /** Decodes a field as UTF-8, unescaping doubled quotes. */
+    String getString(int field) {
+        if (field >= fieldCount) return "";
+        int start = starts[field];
+        int end = ends[field];
+        int n = end - start;
+        if (scratch.length < n) {
+            scratch = new byte[Math.max(n, scratch.length * 2)];
+        }
+
+        int count = 0;
+        if (escaped[field]) {
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                scratch[count++] = b;
+                if (b == '"') i++; // skip the second quote of ""
+            }
+        } else {
+            for (int i = start; i < end; i++) {
+                scratch[count++] = buffer.get(i);
+            }
+        }
+        return new String(scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /** Parses a numeric field, returning the default if it is blank or absent. */
+    double getDouble(int field, double missing) {
+        return isEmpty(field) ? missing : getDouble(field);
+    }
+
+    /**
+     * Parses a numeric field straight from the mapped bytes. Plain decimals
+     * with up to 15 significant digits are converted exactly with one
+     * multiply or divide by a power of ten; anything else falls back to
+     * Double.parseDouble.
+     *
+     * @throws NumberFormatException if the field is absent, blank or not a number
+     */
+    double getDouble(int field) {
+        if (field >= fieldCount) {
+            throw new NumberFormatException("Missing field " + field + " on line " + lineNumber);
+        }
+        MappedByteBuffer buf = buffer;
+        int i = starts[field];
+        int end = ends[field];
+        while (i < end && buf.get(i) == ' ') i++;
+        while (end > i && buf.get(end - 1) == ' ') end--;
+        if (i == end) {
+            throw new NumberFormatException("Empty field " + field + " on line " + lineNumber);
+        }
+
+        boolean negative = false;
+        byte b = buf.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        for (; i < end; i++) {
+            b = buf.get(i);
+            if (b < '0' || b > '9') break;
+            sawDigit = true;
+            if (mantissa != 0 || b != '0') {
+                if (++digits > 18) return slowDouble(field);
+                mantissa = mantissa * 10 + (b - '0');
+            }
+        }
+        if (i < end && buf.get(i) == '.') {
+            for (i++; i < end; i++) {
+                b = buf.get(i);
+                if (b < '0' || b > '9') break;
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++digits > 18) return slowDouble(field);
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                exponent--;
+            }
+        }
+        if (!sawDigit) return slowDouble(field);
+        if (i < end && (buf.get(i) == 'e' || buf.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negativeExponent = buf.get(i) == '-';
+                i++;
+            }
+            int value = 0;
+            int start = i;
+            for (; i < end; i++) {
+                b = buf.get(i);
+                if (b < '0' || b > '9' || value > 100000) break;
+                value = value * 10 + (b - '0');
+            }
+            if (i == start) return slowDouble(field);
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end || digits > 15 || exponent < -22 || exponent > 22) {
+            return slowDouble(field);
+        }
+
+        double value = mantissa;
+        if (exponent < 0) {
+            value /= POWERS_OF_TEN[-exponent];
+        } else if (exponent > 0) {
+            value *= POWERS_OF_TEN[exponent];
+        }
+        return negative ? -value : value;
+    }
+
+    private double slowDouble(int field) {
+        return Double.parseDouble(getString(field).trim());
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
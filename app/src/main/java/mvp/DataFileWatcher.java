@@ -0,0 +1,78 @@
+package mvp;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches one file with a WatchService and calls back after it changes.
+ *
+ * Editors and exporters usually touch a file several times per save, so a
+ * burst of events is coalesced: the callback runs once the file has been
+ * quiet for QUIET_MS. The callback runs on the watcher's daemon thread.
+ */
+class DataFileWatcher implements Closeable {
+    private static final long QUIET_MS = 250;
+
+    private final Path file;
+    private final WatchService service;
+    private final Thread thread;
+
+    DataFileWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        Path directory = this.file.getParent();
+        service = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        thread = new Thread(() -> run(onChange), "Watch " + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** The watched file, as an absolute path. */
+    Path file() {
+        return file;
+    }
+
+    private void run(Runnable onChange) {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                // Block for the first relevant event, then wait out the burst
+                boolean changed = drain(service.take(), name);
+                while (changed) {
+                    WatchKey key = service.poll(QUIET_MS, TimeUnit.MILLISECONDS);
+                    if (key == null) break;
+                    drain(key, name);
+                }
+                if (changed) {
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    // True if any of the key's events concern the watched file (or events were lost)
+    private static boolean drain(WatchKey key, Path name) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
@@ -0,0 +1,183 @@
+package mvp;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One shared copy of each open data file for every viewer window in the
+ * process.
+ *
+ * A file's current version is a Dataset: the PlayerStore with its name and
+ * sort indexes, the file signature it was loaded from and a version number,
+ * all immutable. It is published through an AtomicReference, so readers
+ * take it once and work on a consistent version without locks. A reload
+ * builds the next Dataset on the side (copy-on-write: appended records are
+ * parsed onto a copy of the previous store, see PlayerSnapshot.reload) and
+ * swaps it in whole, so nobody sees a half-loaded file. Loads of one file
+ * are serialized; windows opening or refreshing it at once load it once.
+ *
+ * Users register with open() and leave with close(). While a file is open
+ * the registry watches it, reloads it when it changes and tells the
+ * listeners; when the last user closes it, it is dropped with its memory.
+ */
+class DatasetRegistry {
+    /** One immutable loaded version of a data file. */
+    static final class Dataset {
+        final Path file;
+        final PlayerStore store;
+        final NameIndex names;
+        final SortIndex sorted;
+        final PlayerSnapshot.Signature signature;
+        final long version;
+
+        private Dataset(Path file, PlayerStore store, PlayerSnapshot.Signature signature, long version) {
+            this.file = file;
+            this.store = store;
+            try (Metrics.Timer timer = Metrics.start("index")) {
+                timer.rows(store.size());
+                this.names = new NameIndex(store);
+                this.sorted = new SortIndex(store);
+            }
+            this.signature = signature;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Told about every new version of an open file, on the thread that
+     * loaded it, after the file's load lock is released. Two quick reloads
+     * may be reported out of order; compare versions.
+     */
+    interface Listener {
+        void published(Dataset dataset);
+    }
+
+    private static final class Entry {
+        final Path file;
+        final AtomicReference<Dataset> current = new AtomicReference<>();
+        final ReentrantLock loading = new ReentrantLock();
+        final List<Listener> listeners = new CopyOnWriteArrayList<>();
+        DataFileWatcher watcher;
+
+        Entry(Path file) {
+            this.file = file;
+        }
+    }
+
+    // Open files by absolute path; guarded by itself
+    private static final Map<Path, Entry> ENTRIES = new HashMap<>();
+
+    private DatasetRegistry() {
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /** Registers a user of the file and starts watching it if it is the first. */
+    static void open(Path file, Listener listener) {
+        Path key = key(file);
+        synchronized (ENTRIES) {
+            Entry entry = ENTRIES.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                ENTRIES.put(key, entry);
+                Entry watched = entry;
+                try {
+                    entry.watcher = new DataFileWatcher(key, () -> changed(watched));
+                } catch (IOException e) {
+                    Metrics.error("Not watching " + key + ": " + e.getMessage());
+                }
+            }
+            entry.listeners.add(listener);
+        }
+    }
+
+    /** Removes a user; the last one out drops the file and stops watching it. */
+    static void close(Path file, Listener listener) {
+        Path key = key(file);
+        DataFileWatcher watcher = null;
+        synchronized (ENTRIES) {
+            Entry entry = ENTRIES.get(key);
+            if (entry == null) return;
+            entry.listeners.remove(listener);
+            if (entry.listeners.isEmpty()) {
+                ENTRIES.remove(key);
+                watcher = entry.watcher;
+            }
+        }
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                // nothing left to notify
+            }
+        }
+    }
+
+    /** The file's published version, or null if it is not open or not loaded yet. */
+    static Dataset current(Path file) {
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.get(key(file));
+        }
+        return entry == null ? null : entry.current.get();
+    }
+
+    /**
+     * The file's current version: the published one if the file has not
+     * changed since, otherwise a fresh load, which is published to every
+     * user. If another thread is loading the file this waits for it and
+     * usually returns its result. Files nobody has open are loaded but not
+     * kept. Progress is reported only if this call parses the CSV.
+     */
+    static Dataset get(Path file, PlayerCsvLoader.Progress progress) throws IOException, InterruptedException {
+        Path key = key(file);
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.get(key);
+        }
+        if (entry == null) {
+            PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(key);
+            return new Dataset(key, PlayerSnapshot.load(key, signature, progress), signature, 1);
+        }
+
+        Dataset next;
+        entry.loading.lockInterruptibly();
+        try {
+            Dataset previous = entry.current.get();
+            PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(key);
+            if (previous != null && previous.signature.equals(signature)) {
+                return previous;
+            }
+            PlayerStore store = previous == null
+                ? PlayerSnapshot.load(key, signature, progress)
+                : PlayerSnapshot.reload(key, previous.signature, signature, previous.store);
+            next = new Dataset(key, store, signature, previous == null ? 1 : previous.version + 1);
+            entry.current.set(next);
+        } finally {
+            entry.loading.unlock();
+        }
+        // Outside the lock, so a slow listener does not hold up other callers waiting for the file
+        for (Listener listener : entry.listeners) {
+            listener.published(next);
+        }
+        return next;
+    }
+
+    // Watcher callback; waits for a running load, so a change during it is not lost
+    private static void changed(Entry entry) {
+        try {
+            get(entry.file, null);
+        } catch (IOException | RuntimeException e) {
+            // Often a half-written file; the next change event retries
+            Metrics.error("Error reloading " + entry.file + ": " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
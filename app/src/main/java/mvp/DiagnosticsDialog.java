@@ -0,0 +1,126 @@
+package mvp;
+
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Live view of Metrics: per-stage timings, memory and recent errors,
+ * refreshed every second while open, with the JSON dump one click away.
+ */
+class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MS = 1000;
+
+    private static final String[] COLUMNS = {
+        "Stage", "Count", "Mean ms", "P50 ms", "P90 ms", "P99 ms", "Max ms", "Total ms", "Rows/s", "Alloc MB"
+    };
+
+    private final DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : column == 1 ? Long.class : Double.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final JLabel memory = new JLabel();
+    private final JTextArea errors = new JTextArea(6, 80);
+    private final javax.swing.Timer timer = new javax.swing.Timer(REFRESH_MS, e -> refresh());
+
+    DiagnosticsDialog(Frame owner) {
+        super(owner, "Diagnostics", false);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        table.setRowHeight(22);
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        StatCellRenderer.install(table);
+        table.setDefaultRenderer(Long.class, table.getDefaultRenderer(Double.class));
+
+        errors.setEditable(false);
+        errors.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+
+        memory.setBorder(new EmptyBorder(8, 10, 8, 10));
+        memory.setFont(new Font("Arial", Font.PLAIN, 12));
+
+        JButton copyBtn = new JButton("Copy JSON");
+        copyBtn.addActionListener(e -> Toolkit.getDefaultToolkit().getSystemClipboard()
+            .setContents(new StringSelection(Metrics.toJson()), null));
+        JButton saveBtn = new JButton("Save JSON...");
+        saveBtn.addActionListener(e -> saveJson());
+        JButton resetBtn = new JButton("Reset");
+        resetBtn.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(copyBtn);
+        buttons.add(saveBtn);
+        buttons.add(resetBtn);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        JScrollPane errorPane = new JScrollPane(errors);
+        errorPane.setBorder(BorderFactory.createTitledBorder("Recent errors"));
+        bottom.add(errorPane, BorderLayout.CENTER);
+        bottom.add(buttons, BorderLayout.SOUTH);
+
+        setLayout(new BorderLayout());
+        add(memory, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+        setSize(1000, 500);
+        setLocationRelativeTo(owner);
+
+        refresh();
+        timer.start();
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+        super.dispose();
+    }
+
+    private void refresh() {
+        model.setRowCount(0);
+        for (Metrics.Summary s : Metrics.summaries()) {
+            double seconds = s.total / 1e9;
+            model.addRow(new Object[]{
+                s.stage, s.count, s.mean() / 1e6, s.p50 / 1e6, s.p90 / 1e6, s.p99 / 1e6, s.max / 1e6,
+                s.total / 1e6, seconds > 0 ? s.rows / seconds : 0.0, s.allocated / 1048576.0
+            });
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        memory.setText(String.format("Heap: %.0f MB used of %.0f MB max | Processors: %d",
+            (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0, runtime.maxMemory() / 1048576.0,
+            runtime.availableProcessors()));
+
+        List<String> recent = Metrics.errors();
+        String text = recent.isEmpty() ? "(none)" : String.join("\n", recent);
+        if (!text.equals(errors.getText())) {
+            errors.setText(text);
+        }
+    }
+
+    private void saveJson() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("mvp_metrics.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            Files.write(chooser.getSelectedFile().toPath(), Metrics.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error saving metrics: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package mvp;
+
+import java.util.stream.IntStream;
+
+/**
+ * Per-team or per-position summary of the MVP score and each box-score
+ * stat: count, mean, sample standard deviation, min, max and percentiles.
+ *
+ * Moments come from one parallel pass over row chunks. Each chunk keeps
+ * flat primitive accumulators (count, mean, M2, min, max per group and
+ * stat) and the chunks are merged with Chan's pairwise update, so no row
+ * is boxed and no lock is taken. Percentiles need each group's values in
+ * order; instead of sorting per group they are read off a SortIndex's
+ * per-column orders in one walk per stat, with linear interpolation
+ * between ranks as pandas' quantile() does.
+ */
+class GroupStats {
+    static final int[] COLUMNS = {
+        PlayerStore.MVP_SCORE, PlayerStore.POINTS, PlayerStore.ASSISTS, PlayerStore.REBOUNDS,
+        PlayerStore.STEALS, PlayerStore.BLOCKS
+    };
+    static final double[] PERCENTILES = {0.25, 0.5, 0.75, 0.9};
+
+    enum GroupBy { TEAM, POSITION }
+
+    final String[] groups;
+    final int[] counts;
+    // [stat index in COLUMNS][group]
+    final double[][] mean;
+    final double[][] stddev;
+    final double[][] min;
+    final double[][] max;
+    // [stat index][percentile index][group]; null if computed without a SortIndex
+    final double[][][] percentiles;
+
+    private GroupStats(int groupCount, boolean withPercentiles) {
+        groups = new String[groupCount];
+        counts = new int[groupCount];
+        mean = new double[COLUMNS.length][groupCount];
+        stddev = new double[COLUMNS.length][groupCount];
+        min = new double[COLUMNS.length][groupCount];
+        max = new double[COLUMNS.length][groupCount];
+        percentiles = withPercentiles ? new double[COLUMNS.length][PERCENTILES.length][groupCount] : null;
+    }
+
+    /**
+     * Summarizes the store by team or position. Positions exist only in
+     * stores with raw per-game stats; without them there are no groups.
+     * Percentiles are filled in only when sorted is given and covers the
+     * store; otherwise percentiles is null.
+     */
+    static GroupStats compute(PlayerStore store, GroupBy groupBy, SortIndex sorted) {
+        try (Metrics.Timer timer = Metrics.start(sorted == null ? "aggregate" : "aggregate:percentiles")) {
+            timer.rows(store.size());
+            return aggregate(store, groupBy, sorted);
+        }
+    }
+
+    private static GroupStats aggregate(PlayerStore store, GroupBy groupBy, SortIndex sorted) {
+        boolean byTeam = groupBy == GroupBy.TEAM;
+        int groupCount = byTeam ? store.teamCount() : store.hasRawStats() ? store.positionCount() : 0;
+        int n = groupCount == 0 ? 0 : store.size();
+        int[] groupOf = new int[n];
+        for (int row = 0; row < n; row++) {
+            groupOf[row] = byTeam ? store.teamIdAt(row) : store.positionIdAt(row);
+        }
+
+        boolean covered = sorted != null;
+        for (int column : COLUMNS) {
+            covered &= sorted != null && sorted.covers(store, column);
+        }
+
+        GroupStats stats = new GroupStats(groupCount, covered);
+        for (int g = 0; g < groupCount; g++) {
+            stats.groups[g] = byTeam ? store.teamName(g) : store.positionName(g);
+        }
+        stats.moments(store, groupOf, n);
+        if (covered && n > 0) {
+            IntStream.range(0, COLUMNS.length).parallel()
+                .forEach(s -> stats.percentiles(s, store.column(COLUMNS[s]), sorted.ascendingOrder(COLUMNS[s]), groupOf));
+        }
+        return stats;
+    }
+
+    /** Index of the group with the highest mean of the stat, or -1 if there are no rows. */
+    int best(int stat) {
+        int best = -1;
+        for (int g = 0; g < groups.length; g++) {
+            if (counts[g] > 0 && (best < 0 || mean[stat][g] > mean[stat][best])) best = g;
+        }
+        return best;
+    }
+
+    private void moments(PlayerStore store, int[] groupOf, int n) {
+        int groupCount = groups.length;
+        int stats = COLUMNS.length;
+        double[][] values = new double[stats][];
+        for (int s = 0; s < stats; s++) {
+            values[s] = store.column(COLUMNS[s]);
+        }
+
+        // Per chunk: counts[group] and, per (group, stat), mean, M2, min, max
+        int chunks = MVPScorer.chunkCount(n);
+        int[][] chunkCounts = new int[chunks][];
+        double[][] chunkMoments = new double[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = new int[groupCount];
+            double[] acc = new double[groupCount * stats * 4];
+            for (int i = 0; i < acc.length; i += 4) {
+                acc[i + 2] = Double.POSITIVE_INFINITY;
+                acc[i + 3] = Double.NEGATIVE_INFINITY;
+            }
+            for (int row = MVPScorer.start(c, n, chunks), end = MVPScorer.start(c + 1, n, chunks); row < end; row++) {
+                int g = groupOf[row];
+                int k = ++count[g];
+                int base = g * stats * 4;
+                for (int s = 0; s < stats; s++) {
+                    // Welford's update
+                    double x = values[s][row];
+                    int i = base + s * 4;
+                    double delta = x - acc[i];
+                    acc[i] += delta / k;
+                    acc[i + 1] += delta * (x - acc[i]);
+                    if (x < acc[i + 2]) acc[i + 2] = x;
+                    if (x > acc[i + 3]) acc[i + 3] = x;
+                }
+            }
+            chunkCounts[c] = count;
+            chunkMoments[c] = acc;
+        });
+
+        // Merge chunks (Chan et al.) into the first
+        int[] count = chunkCounts[0];
+        double[] acc = chunkMoments[0];
+        for (int c = 1; c < chunks; c++) {
+            for (int g = 0; g < groupCount; g++) {
+                int nb = chunkCounts[c][g];
+                if (nb == 0) continue;
+                int na = count[g];
+                int total = na + nb;
+                for (int s = 0; s < stats; s++) {
+                    int i = (g * stats + s) * 4;
+                    double[] other = chunkMoments[c];
+                    double delta = other[i] - acc[i];
+                    acc[i] += delta * nb / total;
+                    acc[i + 1] += other[i + 1] + delta * delta * ((double) na * nb / total);
+                    acc[i + 2] = Math.min(acc[i + 2], other[i + 2]);
+                    acc[i + 3] = Math.max(acc[i + 3], other[i + 3]);
+                }
+                count[g] = total;
+            }
+        }
+
+        for (int g = 0; g < groupCount; g++) {
+            counts[g] = count[g];
+            for (int s = 0; s < stats; s++) {
+                int i = (g * stats + s) * 4;
+                boolean empty = count[g] == 0;
+                mean[s][g] = empty ? Double.NaN : acc[i];
+                // Sample standard deviation, as pandas' std()
+                stddev[s][g] = count[g] > 1 ? Math.sqrt(acc[i + 1] / (count[g] - 1)) : Double.NaN;
+                min[s][g] = empty ? Double.NaN : acc[i + 2];
+                max[s][g] = empty ? Double.NaN : acc[i + 3];
+            }
+        }
+    }
+
+    // Walks one stat's ascending order, picking each group's values at the percentile ranks
+    private void percentiles(int stat, double[] values, int[] order, int[] groupOf) {
+        int groupCount = groups.length;
+        int p = PERCENTILES.length;
+        int[] lower = new int[groupCount * p];
+        double[] fraction = new double[groupCount * p];
+        double[] low = new double[groupCount * p];
+        double[] high = new double[groupCount * p];
+        for (int g = 0; g < groupCount; g++) {
+            for (int k = 0; k < p; k++) {
+                double position = PERCENTILES[k] * (counts[g] - 1);
+                lower[g * p + k] = (int) Math.floor(position);
+                fraction[g * p + k] = position - Math.floor(position);
+            }
+        }
+
+        int[] seen = new int[groupCount];
+        for (int row : order) {
+            int g = groupOf[row];
+            int rank = seen[g]++;
+            for (int k = g * p, end = k + p; k < end; k++) {
+                if (rank == lower[k]) {
+                    low[k] = values[row];
+                    high[k] = values[row]; // in case this is the group's last value
+                } else if (rank == lower[k] + 1) {
+                    high[k] = values[row];
+                }
+            }
+        }
+
+        for (int g = 0; g < groupCount; g++) {
+            for (int k = 0; k < p; k++) {
+                int i = g * p + k;
+                percentiles[stat][k][g] = counts[g] == 0 ? Double.NaN
+                    : low[i] + fraction[i] * (high[i] - low[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package mvp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch ranking: loads one or many CSVs (any layout the viewer
+ * reads; raw per-game dumps are scored), applies the viewer's search, team,
+ * sort and top-K semantics (PlayerQuery) and writes each result in the
+ * viewer's CSV and/or JSON export layout.
+ *
+ * Files flow through a bounded two-stage pipeline. Rank workers, one per
+ * core by default, each take the next file and read, parse, score, filter
+ * and select its top rows; parsing is fused with reading (CsvReader maps
+ * the file) and the remaining steps work on the columns in memory, so they
+ * stay on one thread. Finished rankings wait in a queue of limited size for
+ * the writer threads; when writers fall behind, rank workers block on the
+ * queue instead of holding ever more parsed files in memory.
+ *
+ * Usage: java -cp nba-mvp-ranker.jar mvp.MVPBatch [options] file-or-directory...
+ *   --out DIR            output directory (default: next to each input)
+ *   --format csv|json|both
+ *   --search TEXT  --team TEAM
+ *   --sort mvp_score|points|assists|rebounds|steals|blocks|player
+ *   --order asc|desc     (default desc)
+ *   --top N              rows per output, 0 for all (default 0)
+ *   --weights P,A,R,S,B  re-score with the basic formula and these weights
+ *   --threads N  --writers N
+ *   --metrics FILE       write stage timings (see Metrics) as JSON
+ * Directories contribute their *.csv files, except earlier outputs.
+ */
+public class MVPBatch {
+    static final String OUTPUT_SUFFIX = "_ranked";
+
+    private final Path out;
+    private final boolean csv;
+    private final boolean json;
+    private final String search;
+    private final String team;
+    private final int column;
+    private final boolean ascending;
+    private final int top;
+    private final double[] weights;
+    private final int threads;
+    private final int writers;
+
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger playersRead = new AtomicInteger();
+
+    // One input's ranked rows on their way to the writers; source is null for the end marker
+    private static class Ranked {
+        final Path source;
+        final PlayerStore store;
+        final int[] rows;
+        final long rankNanos;
+
+        Ranked(Path source, PlayerStore store, int[] rows, long rankNanos) {
+            this.source = source;
+            this.store = store;
+            this.rows = rows;
+            this.rankNanos = rankNanos;
+        }
+    }
+
+    private static final Ranked END = new Ranked(null, null, null, 0);
+
+    private static class UsageException extends Exception {
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    MVPBatch(Path out, boolean csv, boolean json, String search, String team, int column, boolean ascending,
+            int top, double[] weights, int threads, int writers) {
+        this.out = out;
+        this.csv = csv;
+        this.json = json;
+        this.search = search;
+        this.team = team;
+        this.column = column;
+        this.ascending = ascending;
+        this.top = top;
+        this.weights = weights;
+        this.threads = threads;
+        this.writers = writers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            System.exit(run(args));
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java -cp nba-mvp-ranker.jar mvp.MVPBatch [--out DIR] [--format csv|json|both] [--search TEXT] [--team TEAM]"
+                + " [--sort COLUMN] [--order asc|desc] [--top N] [--weights P,A,R,S,B] [--threads N]"
+                + " [--writers N] [--metrics FILE] file-or-directory...");
+            System.exit(2);
+        }
+    }
+
+    // Exit status: 0 if every file was written, 1 if any failed
+    private static int run(String[] args) throws Exception {
+        Path out = null;
+        String format = "csv";
+        String search = null;
+        String team = null;
+        String sort = "mvp_score";
+        String order = "desc";
+        int top = 0;
+        double[] weights = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int writers = -1;
+        Path metrics = null;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                inputs.add(Paths.get(arg));
+                continue;
+            }
+            if (i + 1 == args.length) throw new UsageException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--out": out = Paths.get(value); break;
+                case "--format": format = value; break;
+                case "--search": search = value; break;
+                case "--team": team = value; break;
+                case "--sort": sort = value; break;
+                case "--order": order = value; break;
+                case "--top": top = number(arg, value); break;
+                case "--weights": weights = weights(value); break;
+                case "--threads": threads = number(arg, value); break;
+                case "--writers": writers = number(arg, value); break;
+                case "--metrics": metrics = Paths.get(value); break;
+                default: throw new UsageException("Unknown option: " + arg);
+            }
+        }
+
+        int column = PlayerQuery.columnForName(sort);
+        if (column < 0) throw new UsageException("Unknown sort: " + sort);
+        if (!order.equals("asc") && !order.equals("desc")) throw new UsageException("order must be asc or desc");
+        if (!format.equals("csv") && !format.equals("json") && !format.equals("both")) {
+            throw new UsageException("format must be csv, json or both");
+        }
+        if (threads < 1) throw new UsageException("--threads must be positive");
+        if (writers < 0) writers = Math.max(1, threads / 4);
+        if (writers < 1) throw new UsageException("--writers must be positive");
+        if (inputs.isEmpty()) throw new UsageException("No input files");
+
+        List<Path> files = expand(inputs);
+        if (files.isEmpty()) throw new UsageException("No CSV files found");
+        if (out != null) Files.createDirectories(out);
+
+        MVPBatch batch = new MVPBatch(out, !format.equals("json"), !format.equals("csv"), search, team, column,
+            order.equals("asc"), top, weights, threads, writers);
+        batch.checkOutputs(files);
+        long start = System.nanoTime();
+        batch.process(files);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d files, %d players in %.2f s (%.0f players/s), %d failed%n",
+            batch.done.get(), batch.playersRead.get(), seconds, batch.playersRead.get() / seconds, batch.failed.get());
+        if (metrics != null) {
+            Files.write(metrics, Metrics.toJson().getBytes(StandardCharsets.UTF_8));
+        }
+        return batch.failed.get() == 0 ? 0 : 1;
+    }
+
+    private static int number(String option, String value) throws UsageException {
+        try {
+            int n = Integer.parseInt(value);
+            if (n < 0) throw new UsageException(option + " must not be negative");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new UsageException(option + " must be a number");
+        }
+    }
+
+    private static double[] weights(String value) throws UsageException {
+        String[] parts = value.split(",");
+        if (parts.length != MVPScorer.DEFAULT_WEIGHTS.length) {
+            throw new UsageException("--weights needs " + MVPScorer.DEFAULT_WEIGHTS.length + " values (PTS,AST,TRB,STL,BLK)");
+        }
+        double[] weights = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                weights[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new UsageException("--weights must be numbers");
+        }
+        return weights;
+    }
+
+    // Files as given, and the CSVs (minus earlier outputs) of directories, sorted by name
+    private static List<Path> expand(List<Path> inputs) throws IOException, UsageException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> listing = Files.list(input)) {
+                    listing.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.endsWith(".csv") && !name.endsWith(OUTPUT_SUFFIX + ".csv") && Files.isRegularFile(p);
+                    }).sorted().forEach(files::add);
+                }
+            } else if (Files.isRegularFile(input)) {
+                files.add(input);
+            } else {
+                throw new UsageException("No such file: " + input);
+            }
+        }
+        return files;
+    }
+
+    // Two inputs with the same name would overwrite each other's output in --out
+    private void checkOutputs(List<Path> files) throws UsageException {
+        Map<Path, Path> seen = new HashMap<>();
+        for (Path file : files) {
+            Path target = output(file, ".csv").toAbsolutePath().normalize();
+            Path other = seen.put(target, file);
+            if (other != null) {
+                throw new UsageException(other + " and " + file + " would both be written to " + target);
+            }
+        }
+    }
+
+    private Path output(Path source, String extension) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = (dot > 0 ? name.substring(0, dot) : name) + OUTPUT_SUFFIX + extension;
+        return out != null ? out.resolve(base) : source.resolveSibling(base);
+    }
+
+    private void process(List<Path> files) throws InterruptedException {
+        BlockingQueue<Ranked> ready = new ArrayBlockingQueue<>(threads);
+        ExecutorService rankers = Executors.newFixedThreadPool(threads);
+        ExecutorService writerPool = Executors.newFixedThreadPool(writers);
+        AtomicInteger next = new AtomicInteger();
+        int total = files.size();
+
+        for (int w = 0; w < writers; w++) {
+            writerPool.execute(() -> {
+                try {
+                    for (Ranked ranked = ready.take(); ranked != END; ranked = ready.take()) {
+                        write(ranked, total);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int r = 0; r < threads; r++) {
+            rankers.execute(() -> {
+                try {
+                    for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                        Ranked ranked = rank(files.get(i));
+                        if (ranked != null) ready.put(ranked); // blocks while the writers catch up
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        rankers.shutdown();
+        rankers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        for (int w = 0; w < writers; w++) {
+            ready.put(END);
+        }
+        writerPool.shutdown();
+        writerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    // Loads, scores and queries one file; null if it failed
+    private Ranked rank(Path file) {
+        long start = System.nanoTime();
+        try {
+            PlayerStore store = PlayerCsvLoader.load(file);
+            if (weights != null) {
+                store = store.withMvpScores(MVPScorer.basicScores(store, weights));
+            }
+            NameIndex names = search != null && !search.isEmpty() ? new NameIndex(store) : null;
+            int[] rows = PlayerQuery.run(store, names, null, search, team, column, ascending, top);
+            playersRead.addAndGet(store.size());
+            return new Ranked(file, store, rows, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            Metrics.error("Error ranking " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private void write(Ranked ranked, int total) {
+        long start = System.nanoTime();
+        try {
+            if (csv) PlayerExporter.writeCsv(ranked.store, ranked.rows, output(ranked.source, ".csv"));
+            if (json) PlayerExporter.writeJson(ranked.store, ranked.rows, output(ranked.source, ".json"));
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            Metrics.error("Error writing results for " + ranked.source + ": " + e);
+            return;
+        }
+        System.out.printf("[%d/%d] %s: %d players, %d ranked (%s ms rank, %s ms write)%n",
+            done.incrementAndGet(), total, ranked.source, ranked.store.size(), ranked.rows.length,
+            Metrics.millis(ranked.rankNanos), Metrics.millis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,229 @@
+package mvp;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Java port of the scoring in NBAMVPSORTEREnhanced.py: basic, advanced
+ * (per-game stats plus TS% and AST/TO), position-adjusted, team-impact and
+ * composite scores, computed from a PlayerStore that has raw stats.
+ *
+ * Each pass is a tight loop over primitive columns, split into row chunks
+ * that run on the fork-join common pool. Team means and score ranges are
+ * gathered per chunk and merged before the next pass.
+ */
+class MVPScorer {
+    // PTS, AST, TRB, STL, BLK weights of calculate_basic_mvp_score
+    static final double[] DEFAULT_WEIGHTS = {0.4, 0.2, 0.2, 0.1, 0.1};
+
+    // Position weights (PTS, AST, TRB, STL, BLK); later entries win, as in the script
+    private static final String[] POSITIONS = {"PG", "SG", "SF", "PF", "C"};
+    private static final double[][] POSITION_WEIGHTS = {
+        {0.3, 0.4, 0.1, 0.1, 0.1},
+        {0.4, 0.2, 0.1, 0.2, 0.1},
+        {0.35, 0.2, 0.2, 0.15, 0.1},
+        {0.3, 0.15, 0.3, 0.1, 0.15},
+        {0.25, 0.1, 0.35, 0.05, 0.25}
+    };
+
+    private static final int[] STAT_COLUMNS = {
+        PlayerStore.POINTS, PlayerStore.ASSISTS, PlayerStore.REBOUNDS, PlayerStore.STEALS, PlayerStore.BLOCKS
+    };
+
+    private static final int MIN_CHUNK = 16384;
+
+    /** One array per scoring method, indexed by store row. */
+    static class Scores {
+        final double[] basic, advanced, position, teamImpact, composite;
+
+        Scores(int size) {
+            basic = new double[size];
+            advanced = new double[size];
+            position = new double[size];
+            teamImpact = new double[size];
+            composite = new double[size];
+        }
+    }
+
+    private final double[] weights;
+
+    MVPScorer() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    MVPScorer(double[] weights) {
+        if (weights.length != 5) {
+            throw new IllegalArgumentException("Expected 5 weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+
+    Scores score(PlayerStore store) {
+        if (!store.hasRawStats()) {
+            throw new IllegalArgumentException("Scoring needs G, Pos, FGA, FTA and TOV columns");
+        }
+        int n = store.size();
+        Scores scores = new Scores(n);
+        int chunks = chunkCount(n);
+
+        double[] pts = store.column(PlayerStore.POINTS);
+        double[] ast = store.column(PlayerStore.ASSISTS);
+        double[] trb = store.column(PlayerStore.REBOUNDS);
+        double[] stl = store.column(PlayerStore.STEALS);
+        double[] blk = store.column(PlayerStore.BLOCKS);
+        double[] games = store.column(PlayerStore.GAMES);
+        double[] fga = store.column(PlayerStore.FGA);
+        double[] fta = store.column(PlayerStore.FTA);
+        double[] tov = store.column(PlayerStore.TOV);
+
+        // Position weights resolved once per distinct position string
+        double[][] positionWeights = new double[store.positionCount()][];
+        for (int id = 0; id < positionWeights.length; id++) {
+            String pos = store.positionName(id);
+            for (int p = 0; p < POSITIONS.length; p++) {
+                if (pos.contains(POSITIONS[p])) positionWeights[id] = POSITION_WEIGHTS[p];
+            }
+        }
+
+        // Pass 1: per-row scores and per-chunk team sums (5 stats + count)
+        int teams = store.teamCount();
+        double[][] teamSums = new double[chunks][teams * 6];
+        double w0 = weights[0], w1 = weights[1], w2 = weights[2], w3 = weights[3], w4 = weights[4];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            double[] sums = teamSums[c];
+            for (int row = start(c, n, chunks), end = start(c + 1, n, chunks); row < end; row++) {
+                scores.basic[row] = pts[row] * w0 + ast[row] * w1 + trb[row] * w2
+                    + stl[row] * w3 + blk[row] * w4;
+
+                double g = games[row];
+                double attempts = 2 * (fga[row] + 0.44 * fta[row]);
+                double trueShooting = attempts > 0 ? pts[row] / attempts : 0;
+                double astToRatio = ast[row] / (tov[row] + 1);
+                double perGame = g > 0 ? (pts[row] * 0.35 + ast[row] * 0.25 + trb[row] * 0.20
+                    + stl[row] * 0.10 + blk[row] * 0.10) / g : 0;
+                scores.advanced[row] = perGame + trueShooting * 50 + astToRatio * 2;
+
+                double[] pw = positionWeights[store.positionIdAt(row)];
+                scores.position[row] = pw == null ? 0 : pts[row] * pw[0] + ast[row] * pw[1]
+                    + trb[row] * pw[2] + stl[row] * pw[3] + blk[row] * pw[4];
+
+                int t = store.teamIdAt(row) * 6;
+                sums[t] += pts[row];
+                sums[t + 1] += ast[row];
+                sums[t + 2] += trb[row];
+                sums[t + 3] += stl[row];
+                sums[t + 4] += blk[row];
+                sums[t + 5]++;
+            }
+        });
+
+        double[] teamMeans = new double[teams * 6];
+        for (double[] sums : teamSums) {
+            for (int i = 0; i < sums.length; i++) {
+                teamMeans[i] += sums[i];
+            }
+        }
+        for (int t = 0; t < teams; t++) {
+            double count = teamMeans[t * 6 + 5];
+            for (int s = 0; s < 5; s++) {
+                teamMeans[t * 6 + s] = count > 0 ? teamMeans[t * 6 + s] / count : 0;
+            }
+        }
+
+        // Pass 2: team impact and per-chunk min/max of the four inputs to the composite
+        double[][] ranges = new double[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            double[] range = newRange();
+            for (int row = start(c, n, chunks), end = start(c + 1, n, chunks); row < end; row++) {
+                int t = store.teamIdAt(row) * 6;
+                double impact = (pts[row] - teamMeans[t]) * w0 + (ast[row] - teamMeans[t + 1]) * w1
+                    + (trb[row] - teamMeans[t + 2]) * w2 + (stl[row] - teamMeans[t + 3]) * w3
+                    + (blk[row] - teamMeans[t + 4]) * w4;
+                scores.teamImpact[row] = scores.basic[row] + impact * 0.1;
+
+                extend(range, 0, scores.basic[row]);
+                extend(range, 1, scores.advanced[row]);
+                extend(range, 2, scores.position[row]);
+                extend(range, 3, scores.teamImpact[row]);
+            }
+            ranges[c] = range;
+        });
+
+        double[] range = newRange();
+        for (double[] r : ranges) {
+            for (int i = 0; i < 4; i++) {
+                extend(range, i, r[i * 2]);
+                extend(range, i, r[i * 2 + 1]);
+            }
+        }
+
+        // Pass 3: normalize each score to 0-100 and combine
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            for (int row = start(c, n, chunks), end = start(c + 1, n, chunks); row < end; row++) {
+                scores.composite[row] = normalize(scores.basic[row], range, 0) * 0.3
+                    + normalize(scores.advanced[row], range, 1) * 0.3
+                    + normalize(scores.position[row], range, 2) * 0.2
+                    + normalize(scores.teamImpact[row], range, 3) * 0.2;
+            }
+        });
+        return scores;
+    }
+
+    /** Basic scores under the given weights, one multiply-add per stat per row. */
+    static double[] basicScores(PlayerStore store, double[] weights) {
+        return adjustBasic(store, new double[store.size()], weights);
+    }
+
+    /**
+     * Basic scores after the weights move by delta, given the scores before
+     * the move. Scores are linear in the weights, so only the stat columns
+     * whose weight changed are touched (typically one while a slider drags).
+     */
+    static double[] adjustBasic(PlayerStore store, double[] base, double[] delta) {
+        int n = store.size();
+        double[] scores = Arrays.copyOf(base, n);
+        int chunks = chunkCount(n);
+        for (int stat = 0; stat < 5; stat++) {
+            double d = delta[stat];
+            if (d == 0) continue;
+            double[] values = store.column(STAT_COLUMNS[stat]);
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                for (int row = start(c, n, chunks), end = start(c + 1, n, chunks); row < end; row++) {
+                    scores[row] += d * values[row];
+                }
+            });
+        }
+        return scores;
+    }
+
+    static int chunkCount(int n) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(n / MIN_CHUNK, parallelism * 4));
+    }
+
+    static int start(int chunk, int n, int chunks) {
+        return (int) ((long) n * chunk / chunks);
+    }
+
+    // [min0, max0, min1, max1, ...] for the four composite inputs
+    private static double[] newRange() {
+        double[] range = new double[8];
+        for (int i = 0; i < 4; i++) {
+            range[i * 2] = Double.POSITIVE_INFINITY;
+            range[i * 2 + 1] = Double.NEGATIVE_INFINITY;
+        }
+        return range;
+    }
+
+    private static void extend(double[] range, int score, double value) {
+        if (value < range[score * 2]) range[score * 2] = value;
+        if (value > range[score * 2 + 1]) range[score * 2 + 1] = value;
+    }
+
+    private static double normalize(double value, double[] range, int score) {
+        double min = range[score * 2];
+        double span = range[score * 2 + 1] - min;
+        return span > 0 ? (value - min) / span * 100 : 0;
+    }
+}
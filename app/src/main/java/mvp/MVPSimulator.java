@@ -0,0 +1,239 @@
+package mvp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo stability of the MVP ranking under the basic formula (the
+ * one the weight sliders drive): how often each candidate finishes first
+ * and in the top PODIUM when the weights and stats are uncertain.
+ *
+ * Each trial scales every weight by (1 + weightNoise * z) (clamped at 0)
+ * and every candidate's per-game stat by its own (1 + statNoise * z), with
+ * z standard normal, then re-ranks. For fixed weights a candidate's score
+ * is then normal with mean sum(w * s) and standard deviation
+ * statNoise * sqrt(sum(w^2 * s^2)), so one normal draw per candidate gives
+ * exactly the same distribution as perturbing the five stats separately.
+ *
+ * Trials are split into fixed-size chunks, each with its own
+ * SplittableRandom split from the seed in order, so results depend only on
+ * the seed and not on the number of cores. Chunks run in parallel with
+ * their own counters and a fixed-size top-PODIUM buffer; a trial allocates
+ * nothing.
+ */
+class MVPSimulator {
+    static final int PODIUM = 5;
+
+    private static final int TRIALS_PER_CHUNK = 1 << 14;
+
+    /** Receives the number of trials run so far, from any simulating thread. */
+    interface Progress {
+        void update(long done, long total);
+    }
+
+    /** Per-candidate probabilities, in candidate order. */
+    static final class Result {
+        final int[] rows;
+        final double[] win;
+        final double[] podium;
+        final long trials;
+
+        Result(int[] rows, double[] win, double[] podium, long trials) {
+            this.rows = rows;
+            this.win = win;
+            this.podium = podium;
+            this.trials = trials;
+        }
+    }
+
+    private final int[] rows;
+    private final int count;
+    // Per-game stats (PTS, AST, TRB, STL, BLK) and their squares, by candidate
+    private final double[][] stats = new double[5][];
+    private final double[][] squares = new double[5][];
+    private final double[] weights;
+    private final double weightNoise;
+    private final double statNoise;
+    private volatile boolean cancelled;
+
+    MVPSimulator(PlayerStore store, int[] rows, double[] weights, double weightNoise, double statNoise) {
+        this.rows = rows.clone();
+        this.count = rows.length;
+        this.weights = weights.clone();
+        this.weightNoise = weightNoise;
+        this.statNoise = statNoise;
+        for (int j = 0; j < 5; j++) {
+            stats[j] = new double[count];
+            squares[j] = new double[count];
+            for (int i = 0; i < count; i++) {
+                double value = store.get(PlayerStore.POINTS + j, rows[i]);
+                stats[j][i] = value;
+                squares[j][i] = value * value;
+            }
+        }
+    }
+
+    /** Makes a running simulation stop at its next chunk and throw InterruptedException. */
+    void cancel() {
+        cancelled = true;
+    }
+
+    Result run(long trials, long seed, Progress progress) throws InterruptedException {
+        int chunks = (int) ((trials + TRIALS_PER_CHUNK - 1) / TRIALS_PER_CHUNK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+
+        AtomicLong done = new AtomicLong();
+        long[][] counts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            long[][] chunk = new long[2][count];
+            if (cancelled || count == 0) return chunk;
+            int n = (int) Math.min(TRIALS_PER_CHUNK, trials - (long) c * TRIALS_PER_CHUNK);
+            simulate(randoms[c], n, chunk[0], chunk[1]);
+            long total = done.addAndGet(n);
+            if (progress != null) progress.update(total, trials);
+            return chunk;
+        }).reduce((a, b) -> {
+            for (int i = 0; i < count; i++) {
+                a[0][i] += b[0][i];
+                a[1][i] += b[1][i];
+            }
+            return a;
+        }).orElse(new long[2][count]);
+        if (cancelled) {
+            throw new InterruptedException("Simulation cancelled");
+        }
+
+        double[] win = new double[count];
+        double[] podium = new double[count];
+        for (int i = 0; i < count; i++) {
+            win[i] = trials == 0 ? 0 : (double) counts[0][i] / trials;
+            podium[i] = trials == 0 ? 0 : (double) counts[1][i] / trials;
+        }
+        return new Result(rows.clone(), win, podium, trials);
+    }
+
+    private void simulate(SplittableRandom random, int trials, long[] wins, long[] podium) {
+        double[] pts = stats[0], ast = stats[1], trb = stats[2], stl = stats[3], blk = stats[4];
+        double[] pts2 = squares[0], ast2 = squares[1], trb2 = squares[2], stl2 = squares[3], blk2 = squares[4];
+        int[] top = new int[PODIUM];
+        double[] topScores = new double[PODIUM];
+        boolean noisyStats = statNoise > 0;
+
+        for (int t = 0; t < trials; t++) {
+            double w0 = weight(0, random), w1 = weight(1, random), w2 = weight(2, random);
+            double w3 = weight(3, random), w4 = weight(4, random);
+            double v0 = w0 * w0, v1 = w1 * w1, v2 = w2 * w2, v3 = w3 * w3, v4 = w4 * w4;
+
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                double score = w0 * pts[i] + w1 * ast[i] + w2 * trb[i] + w3 * stl[i] + w4 * blk[i];
+                if (noisyStats) {
+                    double variance = v0 * pts2[i] + v1 * ast2[i] + v2 * trb2[i] + v3 * stl2[i] + v4 * blk2[i];
+                    score += statNoise * Math.sqrt(variance) * gaussian(random);
+                }
+                if (kept < PODIUM || score > topScores[PODIUM - 1]) {
+                    // Insertion into the sorted podium; ties keep the earlier candidate ahead
+                    int at = kept < PODIUM ? kept++ : PODIUM - 1;
+                    while (at > 0 && score > topScores[at - 1]) {
+                        topScores[at] = topScores[at - 1];
+                        top[at] = top[at - 1];
+                        at--;
+                    }
+                    topScores[at] = score;
+                    top[at] = i;
+                }
+            }
+
+            wins[top[0]]++;
+            for (int k = 0; k < kept; k++) {
+                podium[top[k]]++;
+            }
+        }
+    }
+
+    private double weight(int j, SplittableRandom random) {
+        if (weightNoise == 0) return weights[j];
+        return weights[j] * Math.max(0, 1 + weightNoise * gaussian(random));
+    }
+
+    // Ziggurat tables for the standard normal (Marsaglia & Tsang, in Doornik's ZIGNOR form)
+    private static final int LAYERS = 128;
+    private static final double TAIL = 3.442619855899;
+    private static final double LAYER_AREA = 9.91256303526217e-3;
+    private static final double[] LAYER_X = new double[LAYERS + 1];
+    private static final double[] LAYER_RATIO = new double[LAYERS];
+
+    static {
+        double f = Math.exp(-0.5 * TAIL * TAIL);
+        LAYER_X[0] = LAYER_AREA / f;
+        LAYER_X[1] = TAIL;
+        LAYER_X[LAYERS] = 0;
+        for (int i = 2; i < LAYERS; i++) {
+            LAYER_X[i] = Math.sqrt(-2 * Math.log(LAYER_AREA / LAYER_X[i - 1] + f));
+            f = Math.exp(-0.5 * LAYER_X[i] * LAYER_X[i]);
+        }
+        for (int i = 0; i < LAYERS; i++) {
+            LAYER_RATIO[i] = LAYER_X[i + 1] / LAYER_X[i];
+        }
+    }
+
+    /**
+     * A standard normal variate. SplittableRandom has no nextGaussian on
+     * Java 8; the ziggurat needs one random long and a multiply for ~99% of
+     * draws, against a log and a square root per value for Box-Muller.
+     */
+    static double gaussian(SplittableRandom random) {
+        long bits = random.nextLong();
+        int layer = (int) (bits & (LAYERS - 1));
+        double u = 2 * ((bits >>> 11) * 0x1.0p-53) - 1;
+        if (Math.abs(u) < LAYER_RATIO[layer]) {
+            return u * LAYER_X[layer];
+        }
+        return gaussianOutside(random, layer, u);
+    }
+
+    // The rare draws outside the layer's rectangle, kept out of line so gaussian() inlines
+    private static double gaussianOutside(SplittableRandom random, int layer, double u) {
+        while (true) {
+            if (layer == 0) {
+                return tail(random, u < 0);
+            }
+            // Wedge between this layer's rectangle and the curve
+            double x = u * LAYER_X[layer];
+            double f0 = Math.exp(-0.5 * (LAYER_X[layer] * LAYER_X[layer] - x * x));
+            double f1 = Math.exp(-0.5 * (LAYER_X[layer + 1] * LAYER_X[layer + 1] - x * x));
+            if (f1 + random.nextDouble() * (f0 - f1) < 1.0) {
+                return x;
+            }
+            long bits = random.nextLong();
+            layer = (int) (bits & (LAYERS - 1));
+            u = 2 * ((bits >>> 11) * 0x1.0p-53) - 1;
+            if (Math.abs(u) < LAYER_RATIO[layer]) {
+                return u * LAYER_X[layer];
+            }
+        }
+    }
+
+    // Marsaglia's method for |z| > TAIL
+    private static double tail(SplittableRandom random, boolean negative) {
+        double x;
+        double y;
+        do {
+            x = Math.log(random.nextDouble()) / TAIL;
+            y = Math.log(random.nextDouble());
+        } while (-2 * y < x * x);
+        return negative ? x - TAIL : TAIL - x;
+    }
+
+    /** Candidates for a simulation: the `limit` rows with the highest scores, best first. */
+    static int[] candidates(double[] scores, int limit) {
+        if (scores.length == 0 || limit <= 0) return new int[0];
+        TopK top = new TopK(Math.min(limit, scores.length), false);
+        top.offerRange(scores, 0, scores.length);
+        return top.toSortedRows();
+    }
+}
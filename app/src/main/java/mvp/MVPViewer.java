@@ -1,9 +1,16 @@
-import java.io.*;
+package mvp;
+
+import java.nio.file.Paths;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
 public class MVPViewer {
     public static void main(String[] args) {
+        if (java.awt.GraphicsEnvironment.isHeadless()) {
+            System.err.println("No display available; use MVPBatch to rank files headlessly.");
+            System.exit(2);
+        }
+
         // Create the main window
         JFrame frame = new JFrame("Top MVP Candidates");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -13,26 +20,18 @@ public class MVPViewer {
         DefaultTableModel model = new DefaultTableModel();
         JTable table = new JTable(model);
 
-        try {
-            // Read the CSV file
-            BufferedReader reader = new BufferedReader(new FileReader("mvp_candidates.csv"));
-            String line;
-            boolean firstLine = true;
+        try (CsvReader reader = new CsvReader(Paths.get("mvp_candidates.csv"))) {
+            // Add table headers
+            model.setColumnIdentifiers(reader.header());
 
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-
-                if (firstLine) {
-                    // Add table headers
-                    model.setColumnIdentifiers(data);
-                    firstLine = false;
-                } else {
-                    // Add each row of data
-                    model.addRow(data);
+            // Add each row of data
+            while (reader.next()) {
+                String[] data = new String[reader.fieldCount()];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = reader.getString(i);
                 }
+                model.addRow(data);
             }
-
-            reader.close();
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(frame, "Error loading file.");
@@ -0,0 +1,1388 @@
+package mvp;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+import javax.swing.*;
+import javax.swing.border.*;
+import javax.swing.table.*;
+import javax.swing.event.*;
+
+public class MVPViewerEnhanced extends JFrame {
+    private PlayerTableModel model;
+    private JTable table;
+    private JTextField searchField;
+    private JComboBox<String> teamFilter;
+    private JTextField queryField;
+    private JLabel queryError;
+    private StatQuery statQuery;
+    private JComboBox<String> sortCombo;
+    private JCheckBox ascendingCheck;
+    private JComboBox<String> limitCombo;
+    private JLabel statsLabel;
+    private JLabel cacheLabel;
+    private Path dataFile;
+    private PlayerStore store;
+    private NameIndex nameIndex;
+    private SortIndex sortIndex;
+    
+    // Scores as loaded (shared with other windows on the file), and the live basic-formula re-scoring from the sliders
+    private DatasetRegistry.Dataset loaded;
+    private PlayerStore loadedStore;
+    private SortIndex loadedSortIndex;
+    private final DatasetRegistry.Listener datasetListener = 
+        dataset -> SwingUtilities.invokeLater(() -> datasetPublished(dataset));
+    private boolean liveUpdate;
+    private SeasonStore seasonStore;
+    private Path seasonDirectory;
+    private final QueryCache queryCache = new QueryCache(QUERY_CACHE_ENTRIES, QUERY_CACHE_ROWS);
+    private JTabbedPane tabs;
+    private JComboBox<String> groupByCombo;
+    private JComboBox<String> analyticsStatCombo;
+    private DefaultTableModel analyticsModel;
+    private JLabel analyticsLabel;
+    private GroupStats analytics;
+    private GroupStats teamStats;
+    private PlayerStore analyticsStore;
+    private GroupStats.GroupBy analyticsGroupBy;
+    private SwingWorker<GroupStats, Void> analyticsWorker;
+    private DiagnosticsDialog diagnostics;
+    private DefaultTableModel similarModel;
+    private JLabel similarLabel;
+    private SimilarityIndex similarityIndex;
+    private PlayerStore similarityStore;
+    private SwingWorker<List<SimilarityIndex.Match>, Void> similarWorker;
+    private boolean similarPending;
+    private JSlider[] weightSliders;
+    private JLabel[] weightLabels;
+    private double[] currentWeights;
+    private double[] weightedScores;
+    private boolean resettingWeights;
+    private javax.swing.Timer searchTimer;
+    private SwingWorker<DatasetRegistry.Dataset, LoadProgress> loadWorker;
+    private boolean updatingTeams;
+    
+    private static final int SEARCH_DELAY_MS = 150;
+    private static final String[] WEIGHT_NAMES = {"PTS", "AST", "TRB", "STL", "BLK"};
+    private static final int[] LIMITS = {0, 10, 25, 50, 100};
+    private static final int QUERY_CACHE_ENTRIES = 64;
+    private static final long QUERY_CACHE_ROWS = 1 << 23;
+    private static final int ANALYTICS_TAB = 1;
+    private static final int SIMILAR_COUNT = 10;
+    private static final String SIMILAR_PROMPT = "Select a player and press Find Similar to list the most similar seasons";
+    private static final String[] SIMULATION_TRIALS = {"100,000", "1,000,000", "10,000,000"};
+    private static final long SIMULATION_SEED = 20240101L;
+    private static final String[] SIMILAR_COLUMNS = {
+        "Player", "Season", "Team", "Points", "Assists", "Rebounds", "Steals", "Blocks", "TS%", "AST/TO",
+        "MVP Score", "Distance"
+    };
+    private static final String[] ANALYTICS_STATS = {"MVP Score", "Points", "Assists", "Rebounds", "Steals", "Blocks"};
+    private static final String[] ANALYTICS_COLUMNS = {
+        "Group", "Count", "Mean", "Std Dev", "Min", "P25", "Median", "P75", "P90", "Max"
+    };
+    
+    public MVPViewerEnhanced() {
+        this(Paths.get("mvp_candidates.csv"));
+    }
+    
+    public MVPViewerEnhanced(Path dataFile) {
+        this.dataFile = dataFile;
+        initializeUI();
+        setupEventHandlers();
+        DatasetRegistry.open(dataFile, datasetListener);
+        loadData();
+    }
+    
+    private void initializeUI() {
+        setTitle("NBA MVP Analyzer - Advanced Dashboard");
+        // The JVM exits when the last window is gone
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(1200, 800);
+        setLocationRelativeTo(null);
+        
+        // Use default look and feel
+        
+        // Main layout
+        setLayout(new BorderLayout());
+        
+        // Create header panel
+        JPanel headerPanel = createHeaderPanel();
+        add(headerPanel, BorderLayout.NORTH);
+        
+        // Create control panel
+        JPanel controlPanel = createControlPanel();
+        add(controlPanel, BorderLayout.WEST);
+        
+        // Create main content panel
+        JPanel contentPanel = createContentPanel();
+        add(contentPanel, BorderLayout.CENTER);
+        
+        // Create status bar
+        JPanel statusPanel = createStatusPanel();
+        add(statusPanel, BorderLayout.SOUTH);
+    }
+    
+    private JPanel createHeaderPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(25, 25, 35));
+        panel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        
+        JLabel titleLabel = new JLabel("🏀 NBA MVP Analyzer");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        titleLabel.setForeground(Color.WHITE);
+        
+        JLabel subtitleLabel = new JLabel("Advanced Player Statistics Dashboard");
+        subtitleLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        subtitleLabel.setForeground(new Color(200, 200, 200));
+        
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setOpaque(false);
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(subtitleLabel, BorderLayout.SOUTH);
+        
+        panel.add(titlePanel, BorderLayout.WEST);
+        
+        // Add refresh button
+        JButton refreshBtn = new JButton("🔄 Refresh Data");
+        refreshBtn.setBackground(new Color(0, 120, 215));
+        refreshBtn.setForeground(Color.WHITE);
+        refreshBtn.setFocusPainted(false);
+        refreshBtn.setBorder(new EmptyBorder(8, 16, 8, 16));
+        refreshBtn.addActionListener(e -> refreshData());
+        
+        // Open any supported CSV, including raw per-game stats scored in-process
+        JButton openBtn = new JButton("📂 Open CSV");
+        openBtn.setBackground(new Color(0, 120, 215));
+        openBtn.setForeground(Color.WHITE);
+        openBtn.setFocusPainted(false);
+        openBtn.setBorder(new EmptyBorder(8, 16, 8, 16));
+        openBtn.addActionListener(e -> openFile());
+        
+        // Another dashboard on the same data, sharing the loaded copy
+        JButton windowBtn = new JButton("🗗 New Window");
+        windowBtn.setBackground(new Color(0, 120, 215));
+        windowBtn.setForeground(Color.WHITE);
+        windowBtn.setFocusPainted(false);
+        windowBtn.setBorder(new EmptyBorder(8, 16, 8, 16));
+        windowBtn.addActionListener(e -> newWindow());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(windowBtn);
+        buttonPanel.add(openBtn);
+        buttonPanel.add(refreshBtn);
+        
+        panel.add(buttonPanel, BorderLayout.EAST);
+        
+        return panel;
+    }
+    
+    private JPanel createControlPanel() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBackground(new Color(240, 240, 245));
+        panel.setBorder(new CompoundBorder(
+            new EmptyBorder(20, 15, 20, 15),
+            new TitledBorder("Filters & Controls")
+        ));
+        panel.setPreferredSize(new Dimension(250, 0));
+        
+        // Search field
+        JLabel searchLabel = new JLabel("Search Player:");
+        searchLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(searchLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        searchField = new JTextField();
+        searchField.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        panel.add(searchField);
+        panel.add(Box.createVerticalStrut(15));
+        
+        // Compound query; applied on Enter
+        JLabel queryLabel = new JLabel("Query:");
+        queryLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(queryLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        queryField = new JTextField();
+        queryField.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        queryField.setToolTipText("<html>e.g. PTS &gt; 25 AND AST &gt;= 7 AND Team IN (DEN, DAL) ORDER BY MVP_Score DESC LIMIT 20"
+            + "<br>Fields: PTS, AST, TRB, STL, BLK, MVP_Score, G, FGA, FTA, TOV, Player, Team, Pos. Press Enter to apply.</html>");
+        panel.add(queryField);
+        queryError = new JLabel(" ");
+        queryError.setFont(new Font("Arial", Font.PLAIN, 10));
+        queryError.setForeground(new Color(200, 35, 51));
+        panel.add(queryError);
+        panel.add(Box.createVerticalStrut(10));
+        
+        // Team filter
+        JLabel teamLabel = new JLabel("Filter by Team:");
+        teamLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(teamLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        teamFilter = new JComboBox<>();
+        teamFilter.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        panel.add(teamFilter);
+        panel.add(Box.createVerticalStrut(15));
+        
+        // Sort options
+        JLabel sortLabel = new JLabel("Sort by:");
+        sortLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(sortLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        sortCombo = new JComboBox<>(new String[]{
+            "MVP Score", "Points", "Assists", "Rebounds", "Steals", "Blocks", "Player Name"
+        });
+        sortCombo.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        panel.add(sortCombo);
+        panel.add(Box.createVerticalStrut(10));
+        
+        ascendingCheck = new JCheckBox("Ascending Order");
+        panel.add(ascendingCheck);
+        panel.add(Box.createVerticalStrut(10));
+        
+        // Top-K mode
+        limitCombo = new JComboBox<>(new String[]{
+            "All Players", "Top 10", "Top 25", "Top 50", "Top 100"
+        });
+        limitCombo.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        panel.add(limitCombo);
+        panel.add(Box.createVerticalStrut(20));
+        
+        // Score weights
+        JLabel weightsLabel = new JLabel("MVP Score Weights:");
+        weightsLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(weightsLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        weightSliders = new JSlider[WEIGHT_NAMES.length];
+        weightLabels = new JLabel[WEIGHT_NAMES.length];
+        for (int i = 0; i < WEIGHT_NAMES.length; i++) {
+            int percent = (int) Math.round(MVPScorer.DEFAULT_WEIGHTS[i] * 100);
+            weightSliders[i] = new JSlider(0, 100, percent);
+            weightSliders[i].setOpaque(false);
+            weightLabels[i] = new JLabel(String.format("%s %.2f", WEIGHT_NAMES[i], percent / 100.0));
+            weightLabels[i].setFont(new Font("Arial", Font.PLAIN, 11));
+            weightLabels[i].setPreferredSize(new Dimension(60, 20));
+            
+            JPanel row = new JPanel(new BorderLayout());
+            row.setOpaque(false);
+            row.setMaximumSize(new Dimension(Integer.MAX_VALUE, 25));
+            row.add(weightLabels[i], BorderLayout.WEST);
+            row.add(weightSliders[i], BorderLayout.CENTER);
+            panel.add(row);
+        }
+        panel.add(Box.createVerticalStrut(5));
+        
+        JButton resetWeightsBtn = new JButton("Reset Weights");
+        resetWeightsBtn.setBackground(new Color(108, 117, 125));
+        resetWeightsBtn.setForeground(Color.WHITE);
+        resetWeightsBtn.setFocusPainted(false);
+        resetWeightsBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        resetWeightsBtn.addActionListener(e -> resetWeights());
+        panel.add(resetWeightsBtn);
+        panel.add(Box.createVerticalStrut(20));
+        
+        // Action buttons
+        JButton applyBtn = new JButton("Apply Filters");
+        applyBtn.setBackground(new Color(0, 120, 215));
+        applyBtn.setForeground(Color.WHITE);
+        applyBtn.setFocusPainted(false);
+        applyBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        applyBtn.addActionListener(e -> applyFilters());
+        panel.add(applyBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton resetBtn = new JButton("Reset Filters");
+        resetBtn.setBackground(new Color(108, 117, 125));
+        resetBtn.setForeground(Color.WHITE);
+        resetBtn.setFocusPainted(false);
+        resetBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        resetBtn.addActionListener(e -> resetFilters());
+        panel.add(resetBtn);
+        panel.add(Box.createVerticalStrut(20));
+        
+        // Export buttons
+        JLabel exportLabel = new JLabel("Export Data:");
+        exportLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(exportLabel);
+        panel.add(Box.createVerticalStrut(5));
+        
+        JButton exportCsvBtn = new JButton("Export to CSV");
+        exportCsvBtn.setBackground(new Color(40, 167, 69));
+        exportCsvBtn.setForeground(Color.WHITE);
+        exportCsvBtn.setFocusPainted(false);
+        exportCsvBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        exportCsvBtn.addActionListener(e -> exportToCSV());
+        panel.add(exportCsvBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton exportJsonBtn = new JButton("Export to JSON");
+        exportJsonBtn.setBackground(new Color(255, 193, 7));
+        exportJsonBtn.setForeground(Color.BLACK);
+        exportJsonBtn.setFocusPainted(false);
+        exportJsonBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        exportJsonBtn.addActionListener(e -> exportToJSON());
+        panel.add(exportJsonBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton historyBtn = new JButton("Player History");
+        historyBtn.setBackground(new Color(111, 66, 193));
+        historyBtn.setForeground(Color.WHITE);
+        historyBtn.setFocusPainted(false);
+        historyBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        historyBtn.addActionListener(e -> showHistory());
+        panel.add(historyBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton similarBtn = new JButton("Find Similar");
+        similarBtn.setBackground(new Color(232, 62, 140));
+        similarBtn.setForeground(Color.WHITE);
+        similarBtn.setFocusPainted(false);
+        similarBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        similarBtn.addActionListener(e -> findSimilarSeasons());
+        panel.add(similarBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton oddsBtn = new JButton("MVP Odds");
+        oddsBtn.setBackground(new Color(23, 162, 184));
+        oddsBtn.setForeground(Color.WHITE);
+        oddsBtn.setFocusPainted(false);
+        oddsBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        oddsBtn.addActionListener(e -> simulateOdds());
+        panel.add(oddsBtn);
+        panel.add(Box.createVerticalStrut(10));
+        
+        JButton diagnosticsBtn = new JButton("Diagnostics");
+        diagnosticsBtn.setBackground(new Color(108, 117, 125));
+        diagnosticsBtn.setForeground(Color.WHITE);
+        diagnosticsBtn.setFocusPainted(false);
+        diagnosticsBtn.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+        diagnosticsBtn.addActionListener(e -> showDiagnostics());
+        panel.add(diagnosticsBtn);
+        
+        return panel;
+    }
+    
+    private JPanel createContentPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        
+        // Create table with custom renderer
+        model = new PlayerTableModel();
+        
+        table = new JTable(model);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setRowHeight(25);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        table.getTableHeader().setBackground(new Color(70, 130, 180));
+        table.getTableHeader().setForeground(Color.WHITE);
+        
+        // Striped rows, numbers formatted like "#.##"
+        StatCellRenderer.install(table);
+        
+        // Double-click a player for their season history
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && table.getSelectedRow() >= 0) {
+                    showHistory();
+                }
+            }
+        });
+        
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(new EmptyBorder(10, 10, 10, 10));
+        
+        // Once Find Similar has built the index, selecting a player lists their most similar seasons
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && similarityIndex != null) findSimilar();
+        });
+        JSplitPane rankings = new JSplitPane(JSplitPane.VERTICAL_SPLIT, scrollPane, createSimilarPanel());
+        rankings.setResizeWeight(0.7);
+        rankings.setBorder(null);
+        
+        tabs = new JTabbedPane();
+        tabs.addTab("Rankings", rankings);
+        tabs.addTab("Analytics", createAnalyticsPanel());
+        panel.add(tabs, BorderLayout.CENTER);
+        
+        return panel;
+    }
+    
+    private JPanel createSimilarPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        similarLabel = new JLabel(SIMILAR_PROMPT);
+        similarLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        similarLabel.setForeground(new Color(100, 100, 100));
+        similarLabel.setBorder(new EmptyBorder(5, 10, 0, 10));
+        
+        similarModel = new DefaultTableModel(SIMILAR_COLUMNS, 0) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 || column == 2 ? String.class : column == 1 ? Object.class : Double.class;
+            }
+            
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable similarTable = new JTable(similarModel);
+        similarTable.setRowHeight(22);
+        similarTable.setFont(new Font("Arial", Font.PLAIN, 12));
+        similarTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        StatCellRenderer.install(similarTable);
+        
+        JScrollPane scrollPane = new JScrollPane(similarTable);
+        scrollPane.setBorder(new EmptyBorder(5, 10, 10, 10));
+        panel.add(similarLabel, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+    
+    private JPanel createAnalyticsPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        
+        JPanel options = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        groupByCombo = new JComboBox<>(new String[]{"Team", "Position"});
+        analyticsStatCombo = new JComboBox<>(ANALYTICS_STATS);
+        analyticsLabel = new JLabel();
+        analyticsLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        analyticsLabel.setForeground(new Color(100, 100, 100));
+        options.add(new JLabel("Group by:"));
+        options.add(groupByCombo);
+        options.add(new JLabel("Stat:"));
+        options.add(analyticsStatCombo);
+        options.add(analyticsLabel);
+        
+        analyticsModel = new DefaultTableModel(ANALYTICS_COLUMNS, 0) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 ? String.class : column == 1 ? Integer.class : Double.class;
+            }
+            
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable analyticsTable = new JTable(analyticsModel);
+        analyticsTable.setAutoCreateRowSorter(true);
+        analyticsTable.setRowHeight(25);
+        analyticsTable.setFont(new Font("Arial", Font.PLAIN, 12));
+        analyticsTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        StatCellRenderer.install(analyticsTable);
+        
+        JScrollPane scrollPane = new JScrollPane(analyticsTable);
+        scrollPane.setBorder(new EmptyBorder(10, 10, 10, 10));
+        panel.add(options, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+    
+    private JPanel createStatusPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(248, 249, 250));
+        panel.setBorder(new CompoundBorder(
+            new MatteBorder(1, 0, 0, 0, new Color(200, 200, 200)),
+            new EmptyBorder(5, 15, 5, 15)
+        ));
+        
+        statsLabel = new JLabel("Ready");
+        statsLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        
+        JLabel versionLabel = new JLabel("NBA MVP Analyzer v2.0");
+        versionLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        versionLabel.setForeground(new Color(100, 100, 100));
+        
+        cacheLabel = new JLabel("", SwingConstants.CENTER);
+        cacheLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        cacheLabel.setForeground(new Color(100, 100, 100));
+        
+        panel.add(statsLabel, BorderLayout.WEST);
+        panel.add(cacheLabel, BorderLayout.CENTER);
+        panel.add(versionLabel, BorderLayout.EAST);
+        
+        return panel;
+    }
+    
+    private void loadData() {
+        // Refreshing mid-load abandons the running load
+        if (loadWorker != null) {
+            loadWorker.cancel(true);
+        }
+        
+        Path file = dataFile;
+        statsLabel.setText("Loading " + file + "...");
+        
+        // In top-K mode the partial table shows the running top K rows
+        int limit = LIMITS[limitCombo.getSelectedIndex()];
+        int column = PlayerQuery.column((String) sortCombo.getSelectedItem());
+        TopK running = limit > 0 && column != PlayerStore.PLAYER_NAME
+            ? new TopK(limit, ascendingCheck.isSelected()) : null;
+        
+        loadWorker = new SwingWorker<DatasetRegistry.Dataset, LoadProgress>() {
+            private int offered;
+            
+            @Override
+            protected DatasetRegistry.Dataset doInBackground() throws Exception {
+                // Returns at once if another window already has this version
+                return DatasetRegistry.get(file, (partial, position, length) -> {
+                    setProgress((int) (100 * position / Math.max(length, 1)));
+                    PlayerStore snapshot = partial.snapshot();
+                    int[] top = null;
+                    if (running != null) {
+                        running.offerRange(snapshot.column(column), offered, snapshot.size());
+                        offered = snapshot.size();
+                        top = running.toSortedRows();
+                    }
+                    publish(new LoadProgress(snapshot, top));
+                });
+            }
+            
+            @Override
+            protected void process(List<LoadProgress> chunks) {
+                // Late chunks must not overwrite the finished store
+                if (isCancelled() || isDone()) return;
+                
+                // Show the newest partial snapshot
+                LoadProgress latest = chunks.get(chunks.size() - 1);
+                store = latest.store;
+                if (latest.topRows != null) {
+                    model.setRows(store, latest.topRows);
+                } else {
+                    updateTable();
+                }
+                statsLabel.setText(String.format("Loading %s... %d%% (%d players)", 
+                    file, getProgress(), store.size()));
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                
+                try {
+                    DatasetRegistry.Dataset data = get();
+                    if (data != loaded) {
+                        installStore(data, false);
+                    } else {
+                        applyFilters(); // replace any partial rows shown meanwhile
+                        updateStats();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    Metrics.error("Error loading " + file, cause);
+                    statsLabel.setText("Error loading data");
+                    JOptionPane.showMessageDialog(MVPViewerEnhanced.this, 
+                        "Error loading data: " + cause.getMessage(), 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        loadWorker.execute();
+    }
+    
+    /** Makes a finished load current and refreshes the UI from it. */
+    private void installStore(DatasetRegistry.Dataset data, boolean live) {
+        queryCache.clear(); // results for the old version can never hit again
+        loaded = data;
+        loadedStore = data.store;
+        loadedSortIndex = data.sorted;
+        store = loadedStore;
+        nameIndex = data.names;
+        sortIndex = data.sorted;
+        
+        // Row-level table events for live reloads, so the selection survives
+        liveUpdate = live;
+        try {
+            // Keep custom slider weights across reloads
+            weightedScores = null;
+            if (currentWeights != null) {
+                rescore();
+            }
+            
+            // Update UI
+            updateTeamFilter();
+            applyFilters();
+            updateStats();
+        } finally {
+            liveUpdate = false;
+        }
+    }
+    
+    /**
+     * Picks up a new version of the data file, loaded by the registry after
+     * an edit (appended records are parsed on their own) or by another
+     * window. The table is updated with row-level events.
+     */
+    private void datasetPublished(DatasetRegistry.Dataset data) {
+        if (!isDisplayable() || data == loaded) return;
+        if (!data.file.equals(dataFile.toAbsolutePath().normalize())) return; // switched files meanwhile
+        if (loadWorker != null && !loadWorker.isDone()) return; // the running load installs it
+        if (loaded != null && data.version < loaded.version) return;
+        installStore(data, loaded != null);
+    }
+    
+    /** Reloads the data file unless it is unchanged since the last load. */
+    private void refreshData() {
+        if (loaded != null && (loadWorker == null || loadWorker.isDone())) {
+            try {
+                if (PlayerSnapshot.Signature.of(dataFile).equals(loaded.signature)) {
+                    updateStats();
+                    return;
+                }
+            } catch (IOException e) {
+                // Let the reload report it
+            }
+        }
+        loadData();
+    }
+    
+    private void newWindow() {
+        MVPViewerEnhanced window = new MVPViewerEnhanced(dataFile);
+        window.setLocation(getX() + 30, getY() + 30);
+        window.setVisible(true);
+    }
+    
+    @Override
+    public void dispose() {
+        if (loadWorker != null) {
+            loadWorker.cancel(true);
+        }
+        DatasetRegistry.close(dataFile, datasetListener);
+        super.dispose();
+    }
+    
+    private void openFile() {
+        JFileChooser fileChooser = new JFileChooser(new File("."));
+        fileChooser.setSelectedFile(dataFile.toFile());
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            DatasetRegistry.close(dataFile, datasetListener);
+            dataFile = fileChooser.getSelectedFile().toPath();
+            // The season files may differ for the new file; index them again on request
+            similarityIndex = null;
+            similarityStore = null;
+            similarModel.setRowCount(0);
+            similarLabel.setText(SIMILAR_PROMPT);
+            DatasetRegistry.open(dataFile, datasetListener);
+            loadData();
+        }
+    }
+    
+    private void updateTable() {
+        model.showAll(store);
+    }
+    
+    private void updateTeamFilter() {
+        // Rebuilding the combo fires selection events; filter once afterwards
+        Object selected = teamFilter.getSelectedItem();
+        updatingTeams = true;
+        try {
+            teamFilter.removeAllItems();
+            teamFilter.addItem("All Teams");
+            
+            for (String team : store.sortedTeams()) {
+                teamFilter.addItem(team);
+            }
+            if (selected != null) {
+                teamFilter.setSelectedItem(selected); // no-op if the team is gone
+            }
+        } finally {
+            updatingTeams = false;
+        }
+    }
+    
+    private void updateStats() {
+        updateStats(true);
+    }
+    
+    /**
+     * Refreshes the status line. The best team and the analytics tab take a
+     * group-by pass over every row; without groups they are left as they
+     * are, e.g. while a slider drags, until the release re-scores.
+     */
+    private void updateStats(boolean groups) {
+        if (store.isEmpty()) {
+            statsLabel.setText("No data loaded");
+            return;
+        }
+        
+        int totalPlayers = store.size();
+        double avgScore = store.average(PlayerStore.MVP_SCORE);
+        
+        if (groups || teamStats == null) {
+            teamStats = GroupStats.compute(store, GroupStats.GroupBy.TEAM, null);
+        }
+        GroupStats teams = teamStats;
+        int bestTeam = teams.best(0);
+        int top = topRow();
+        
+        statsLabel.setText(String.format("Loaded %d players | Avg MVP Score: %.1f | Top: %s (%.1f) | Best Team: %s (%.1f)", 
+            totalPlayers, avgScore, store.name(top), store.get(PlayerStore.MVP_SCORE, top),
+            teams.groups[bestTeam], teams.mean[0][bestTeam]));
+        if (groups) {
+            refreshAnalytics();
+        }
+    }
+    
+    // Row with the highest MVP score: first in the sort index if it is current, else one pass over the scores
+    private int topRow() {
+        if (sortIndex != null && sortIndex.covers(store, PlayerStore.MVP_SCORE)) {
+            return sortIndex.select(PlayerStore.MVP_SCORE, false, null, 1)[0];
+        }
+        double[] scores = store.column(PlayerStore.MVP_SCORE);
+        int top = 0;
+        for (int row = 1, n = store.size(); row < n; row++) {
+            if (scores[row] > scores[top] || Double.isNaN(scores[top])) top = row;
+        }
+        return top;
+    }
+    
+    /**
+     * Recomputes the analytics tab in the background if it is showing and
+     * out of date. While one computation runs, further changes just wait for
+     * it; its completion picks up the latest store.
+     */
+    private void refreshAnalytics() {
+        if (store == null || tabs.getSelectedIndex() != ANALYTICS_TAB) return;
+        GroupStats.GroupBy groupBy = groupByCombo.getSelectedIndex() == 1
+            ? GroupStats.GroupBy.POSITION : GroupStats.GroupBy.TEAM;
+        if (analytics != null && analyticsStore == store && analyticsGroupBy == groupBy) return;
+        if (analyticsWorker != null) return;
+        
+        PlayerStore current = store;
+        SortIndex sorted = sortIndex;
+        analyticsLabel.setText("Computing...");
+        analyticsWorker = new SwingWorker<GroupStats, Void>() {
+            @Override
+            protected GroupStats doInBackground() {
+                // Percentiles read the sorted column orders; build them if the index is stale
+                SortIndex index = sorted;
+                for (int column : GroupStats.COLUMNS) {
+                    if (index == null || !index.covers(current, column)) {
+                        index = new SortIndex(current);
+                        break;
+                    }
+                }
+                return GroupStats.compute(current, groupBy, index);
+            }
+            
+            @Override
+            protected void done() {
+                analyticsWorker = null;
+                try {
+                    analytics = get();
+                    analyticsStore = current;
+                    analyticsGroupBy = groupBy;
+                    showAnalytics();
+                } catch (InterruptedException | ExecutionException e) {
+                    analyticsLabel.setText("Error: " + e.getMessage());
+                    return;
+                }
+                refreshAnalytics();
+            }
+        };
+        analyticsWorker.execute();
+    }
+    
+    private void showAnalytics() {
+        analyticsModel.setRowCount(0);
+        if (analytics.groups.length == 0) {
+            analyticsLabel.setText("No positions in this file");
+            return;
+        }
+        int stat = analyticsStatCombo.getSelectedIndex();
+        for (int g = 0; g < analytics.groups.length; g++) {
+            Object[] row = new Object[ANALYTICS_COLUMNS.length];
+            row[0] = analytics.groups[g];
+            row[1] = analytics.counts[g];
+            row[2] = analytics.mean[stat][g];
+            row[3] = analytics.stddev[stat][g];
+            row[4] = analytics.min[stat][g];
+            for (int p = 0; p < GroupStats.PERCENTILES.length; p++) {
+                row[5 + p] = analytics.percentiles[stat][p][g];
+            }
+            row[9] = analytics.max[stat][g];
+            analyticsModel.addRow(row);
+        }
+        analyticsLabel.setText(analytics.groups.length + " groups");
+    }
+    
+    private void setupEventHandlers() {
+        // Search functionality, debounced so fast typing filters once
+        queryField.addActionListener(e -> applyQuery());
+        
+        searchTimer = new javax.swing.Timer(SEARCH_DELAY_MS, e -> applyFilters());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+        });
+        
+        // Team filter
+        teamFilter.addActionListener(e -> applyFilters());
+        
+        // Sort options
+        sortCombo.addActionListener(e -> applyFilters());
+        ascendingCheck.addActionListener(e -> applyFilters());
+        limitCombo.addActionListener(e -> applyFilters());
+        
+        // Analytics are computed when first shown, and again when stale
+        tabs.addChangeListener(e -> refreshAnalytics());
+        groupByCombo.addActionListener(e -> refreshAnalytics());
+        analyticsStatCombo.addActionListener(e -> {
+            if (analytics != null) showAnalytics();
+        });
+        
+        // Weight sliders re-score live while dragging
+        for (JSlider slider : weightSliders) {
+            slider.addChangeListener(e -> weightsChanged(slider));
+        }
+    }
+    
+    private void weightsChanged(JSlider slider) {
+        if (resettingWeights) return;
+        
+        double[] weights = new double[WEIGHT_NAMES.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weightSliders[i].getValue() / 100.0;
+            weightLabels[i].setText(String.format("%s %.2f", WEIGHT_NAMES[i], weights[i]));
+        }
+        
+        if (loadedStore == null) {
+            currentWeights = weights;
+            return;
+        }
+        
+        if (weightedScores != null && currentWeights != null && slider.getValueIsAdjusting()) {
+            // Scores are linear in the weights: apply only the change
+            double[] delta = new double[weights.length];
+            for (int i = 0; i < weights.length; i++) {
+                delta[i] = weights[i] - currentWeights[i];
+            }
+            weightedScores = MVPScorer.adjustBasic(loadedStore, weightedScores, delta);
+            currentWeights = weights;
+            store = loadedStore.withMvpScores(weightedScores);
+            if (sortIndex != null && sortIndex.covers(store, PlayerStore.PLAYER_NAME)) {
+                sortIndex = sortIndex.rescored(store);
+            }
+            applyFilters();
+            updateStats(false);
+        } else {
+            currentWeights = weights;
+            rescore();
+        }
+    }
+    
+    /** Recomputes basic scores from scratch for the current weights. */
+    private void rescore() {
+        weightedScores = MVPScorer.basicScores(loadedStore, currentWeights);
+        store = loadedStore.withMvpScores(weightedScores);
+        if (sortIndex != null && sortIndex.covers(store, PlayerStore.PLAYER_NAME)) {
+            sortIndex = sortIndex.rescored(store);
+        }
+        applyFilters();
+        updateStats();
+    }
+    
+    private void resetWeights() {
+        resettingWeights = true;
+        try {
+            for (int i = 0; i < weightSliders.length; i++) {
+                int percent = (int) Math.round(MVPScorer.DEFAULT_WEIGHTS[i] * 100);
+                weightSliders[i].setValue(percent);
+                weightLabels[i].setText(String.format("%s %.2f", WEIGHT_NAMES[i], percent / 100.0));
+            }
+        } finally {
+            resettingWeights = false;
+        }
+        
+        // Back to the scores from the file
+        currentWeights = null;
+        weightedScores = null;
+        if (loadedStore != null) {
+            store = loadedStore;
+            sortIndex = loadedSortIndex;
+            applyFilters();
+            updateStats();
+        }
+    }
+    
+    private void applyFilters() {
+        if (store == null || updatingTeams) return;
+        
+        String searchText = searchField.getText();
+        String selectedTeam = (String) teamFilter.getSelectedItem();
+        if ("All Teams".equals(selectedTeam)) {
+            selectedTeam = null;
+        }
+        int column = PlayerQuery.column((String) sortCombo.getSelectedItem());
+        boolean ascending = ascendingCheck.isSelected();
+        int limit = LIMITS[limitCombo.getSelectedIndex()];
+        
+        // The query's ORDER BY and LIMIT take precedence over the controls
+        StatQuery where = statQuery;
+        if (where != null && where.orderColumn >= 0) {
+            column = where.orderColumn;
+            ascending = where.ascending;
+        }
+        if (where != null && where.limit >= 0) {
+            limit = where.limit;
+        }
+        String whereText = where != null ? where.text : "";
+        
+        // Flipping between recent filter combinations is answered from the cache
+        int[] filtered = queryCache.get(store, searchText, selectedTeam, whereText, column, ascending, limit);
+        if (filtered == null) {
+            if (!searchText.isEmpty() && (nameIndex == null || !nameIndex.covers(store))) {
+                nameIndex = new NameIndex(store); // partial store while loading
+            }
+            try {
+                filtered = PlayerQuery.run(store, nameIndex, sortIndex, searchText, selectedTeam, where,
+                    column, ascending, limit);
+            } catch (IllegalArgumentException e) {
+                // The query names a field a newly loaded file lacks, e.g. G in a score-only CSV
+                statQuery = null;
+                queryField.setText("");
+                showQueryError(e.getMessage() + "; query cleared");
+                applyFilters();
+                return;
+            }
+            queryCache.put(store, searchText, selectedTeam, whereText, column, ascending, limit, filtered);
+        }
+        cacheLabel.setText(String.format("Query cache: %d hits / %d misses", 
+            queryCache.hits(), queryCache.misses()));
+        
+        // Update table with filtered data; the timing includes the table's event handling
+        try (Metrics.Timer timer = Metrics.start("table:update")) {
+            timer.rows(filtered.length);
+            if (liveUpdate) {
+                model.updateRows(store, filtered);
+            } else {
+                model.setRows(store, filtered);
+            }
+        }
+    }
+    
+    /**
+     * Parses the query box; a bad query, or one naming fields the loaded
+     * file lacks, is reported and the previous one stays in effect.
+     */
+    private void applyQuery() {
+        String text = queryField.getText().trim();
+        StatQuery query;
+        try {
+            query = text.isEmpty() ? null : StatQuery.parse(text);
+            if (query != null && store != null) {
+                query.check(store);
+            }
+        } catch (StatQuery.ParseException | IllegalArgumentException e) {
+            showQueryError(e.getMessage());
+            return;
+        }
+        statQuery = query;
+        showQueryError(null);
+        applyFilters();
+    }
+    
+    private void showQueryError(String message) {
+        queryError.setText(message != null ? message : " ");
+        queryError.setToolTipText(message);
+    }
+    
+    private void showDiagnostics() {
+        if (diagnostics == null || !diagnostics.isDisplayable()) {
+            diagnostics = new DiagnosticsDialog(this);
+        }
+        diagnostics.setVisible(true);
+        diagnostics.toFront();
+    }
+    
+    /** Opens the season history of the selected player, from the season files next to the data file. */
+    private void showHistory() {
+        int viewRow = table.getSelectedRow();
+        if (viewRow < 0 || model.getStore() == null) {
+            JOptionPane.showMessageDialog(this, "Select a player first.", 
+                "Player History", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String player = model.getStore().name(model.storeRow(viewRow));
+        
+        SeasonStore seasons;
+        try {
+            seasons = seasons();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error reading " + dataFile.getParent() + ": " + e.getMessage(), 
+                "Player History", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (seasons.seasons().length == 0) {
+            JOptionPane.showMessageDialog(this, "No season files (NBA_<year>_per_game.csv) next to " + dataFile, 
+                "Player History", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        new PlayerHistoryDialog(this, seasons, player).setVisible(true);
+    }
+    
+    // Season files next to the data file, rescanned when the data file moves to another directory
+    private SeasonStore seasons() throws IOException {
+        Path directory = dataFile.toAbsolutePath().getParent();
+        if (seasonStore == null || !directory.equals(seasonDirectory)) {
+            seasonStore = new SeasonStore(directory);
+            seasonDirectory = directory;
+        }
+        return seasonStore;
+    }
+    
+    private void findSimilarSeasons() {
+        if (table.getSelectedRow() < 0 || model.getStore() == null) {
+            JOptionPane.showMessageDialog(this, "Select a player first.", 
+                "Find Similar", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        findSimilar();
+    }
+    
+    /**
+     * Lists the seasons most similar to the selected player's, across the
+     * loaded file and every season file next to it. The first search reads
+     * the season files once to build the index; after a reload only the
+     * loaded file is indexed again. A selection made while a search runs
+     * is picked up when it finishes.
+     */
+    private void findSimilar() {
+        if (similarWorker != null) {
+            similarPending = true;
+            return;
+        }
+        int viewRow = table.getSelectedRow();
+        PlayerStore shown = model.getStore();
+        if (viewRow < 0 || shown == null || loadedStore == null || !shown.sameRows(loadedStore)) return;
+        int row = model.storeRow(viewRow);
+        
+        PlayerStore base = loadedStore;
+        Path file = dataFile;
+        SimilarityIndex previous = similarityIndex;
+        boolean stale = similarityStore != base;
+        SeasonStore seasons = null;
+        if (previous == null) {
+            try {
+                seasons = seasons();
+            } catch (IOException e) {
+                Metrics.error("Error reading season files: " + e.getMessage());
+            }
+        }
+        SeasonStore history = seasons;
+        int ownSeason = SeasonStore.season(dataFile);
+        String label = ownSeason > 0 ? String.valueOf(ownSeason) : "Current";
+        similarLabel.setText(previous == null ? "Indexing seasons..." : "Searching...");
+        
+        similarWorker = new SwingWorker<List<SimilarityIndex.Match>, Void>() {
+            private SimilarityIndex index = previous;
+            private long nanos;
+            
+            @Override
+            protected List<SimilarityIndex.Match> doInBackground() throws Exception {
+                if (index == null) {
+                    index = buildSimilarityIndex(base, label, ownSeason, history);
+                } else if (stale) {
+                    try (Metrics.Timer timer = Metrics.start("similar:index")) {
+                        index = index.withFirst(new SimilarityIndex.Source(label, base));
+                        timer.rows(index.size());
+                    }
+                }
+                long start = System.nanoTime();
+                try (Metrics.Timer timer = Metrics.start("similar")) {
+                    timer.rows(index.size());
+                    List<SimilarityIndex.Match> matches = index.nearest(base, row, SIMILAR_COUNT);
+                    nanos = System.nanoTime() - start;
+                    return matches;
+                }
+            }
+            
+            @Override
+            protected void done() {
+                similarWorker = null;
+                if (!file.equals(dataFile)) { // another file was opened meanwhile
+                    similarPending = false;
+                    return;
+                }
+                try {
+                    List<SimilarityIndex.Match> matches = get();
+                    similarityIndex = index;
+                    similarityStore = base;
+                    showSimilar(base.name(row), ownSeason, matches, nanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Metrics.error("Error finding similar seasons", e.getCause());
+                    similarLabel.setText("Error finding similar seasons: " + e.getCause().getMessage());
+                }
+                if (similarPending) {
+                    similarPending = false;
+                    findSimilar();
+                }
+            }
+        };
+        similarWorker.execute();
+    }
+    
+    // The loaded file plus every other season file, each read without caching and dropped once indexed
+    private static SimilarityIndex buildSimilarityIndex(PlayerStore loaded, String label, int ownSeason,
+            SeasonStore seasons) throws IOException {
+        List<SimilarityIndex.Source> sources = new ArrayList<>();
+        sources.add(new SimilarityIndex.Source(label, loaded));
+        if (seasons != null) {
+            int[] years = Arrays.stream(seasons.seasons()).filter(year -> year != ownSeason).toArray();
+            SimilarityIndex.Source[] seasonSources = new SimilarityIndex.Source[years.length];
+            try {
+                IntStream.range(0, years.length).parallel().forEach(i -> {
+                    try {
+                        seasonSources[i] = new SimilarityIndex.Source(String.valueOf(years[i]),
+                            seasons.read(years[i]));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            sources.addAll(Arrays.asList(seasonSources));
+        }
+        try (Metrics.Timer timer = Metrics.start("similar:index")) {
+            SimilarityIndex index = new SimilarityIndex(sources);
+            timer.rows(index.size());
+            return index;
+        }
+    }
+    
+    private void showSimilar(String player, int ownSeason, List<SimilarityIndex.Match> matches, long nanos) {
+        similarModel.setRowCount(0);
+        for (SimilarityIndex.Match match : matches) {
+            Object[] row = new Object[SIMILAR_COLUMNS.length];
+            row[0] = match.player;
+            row[1] = match.label;
+            row[2] = match.team;
+            for (int f = 0; f < SimilarityIndex.FEATURES.length; f++) {
+                row[3 + f] = f < match.features.length ? match.features[f] : Double.NaN;
+            }
+            row[10] = match.mvpScore;
+            row[11] = match.distance;
+            similarModel.addRow(row);
+        }
+        similarLabel.setText(String.format("Seasons most similar to %s%s among %,d player-seasons (%d stats, %.1f ms)",
+            player, ownSeason > 0 ? " (" + ownSeason + ")" : "", similarityIndex.size(),
+            similarityIndex.dimensions(), nanos / 1e6));
+    }
+    
+    private void resetFilters() {
+        searchField.setText("");
+        queryField.setText("");
+        statQuery = null;
+        showQueryError(null);
+        teamFilter.setSelectedIndex(0);
+        sortCombo.setSelectedIndex(0);
+        ascendingCheck.setSelected(false);
+        limitCombo.setSelectedIndex(0);
+        applyFilters();
+    }
+    
+    private void exportToCSV() {
+        exportRows("mvp_analysis_export.csv", false);
+    }
+    
+    private void exportToJSON() {
+        exportRows("mvp_analysis_export.json", true);
+    }
+    
+    /**
+     * Asks for trials and noise levels, then runs MVPSimulator on the top
+     * candidates by basic-formula score (slider weights, or the defaults)
+     * and adds win and top-5 odds to the table. The odds go away when the
+     * scores change.
+     */
+    private void simulateOdds() {
+        if (store == null || store.isEmpty() || loadedStore == null) return;
+        
+        JComboBox<String> trialsCombo = new JComboBox<>(SIMULATION_TRIALS);
+        trialsCombo.setSelectedIndex(1);
+        JSpinner candidatesSpinner = new JSpinner(new SpinnerNumberModel(500, 2, 100000, 50));
+        JSpinner weightNoiseSpinner = new JSpinner(new SpinnerNumberModel(10, 0, 100, 1));
+        JSpinner statNoiseSpinner = new JSpinner(new SpinnerNumberModel(10, 0, 100, 1));
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 4));
+        form.add(new JLabel("Trials:"));
+        form.add(trialsCombo);
+        form.add(new JLabel("Candidates:"));
+        form.add(candidatesSpinner);
+        form.add(new JLabel("Weight noise (%):"));
+        form.add(weightNoiseSpinner);
+        form.add(new JLabel("Stat noise (%):"));
+        form.add(statNoiseSpinner);
+        if (JOptionPane.showConfirmDialog(this, form, "Simulate MVP Odds", 
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        long trials = Long.parseLong(((String) trialsCombo.getSelectedItem()).replace(",", ""));
+        double[] weights = currentWeights != null ? currentWeights : MVPScorer.DEFAULT_WEIGHTS;
+        PlayerStore simulated = store;
+        int[] candidates = MVPSimulator.candidates(
+            weightedScores != null ? weightedScores : MVPScorer.basicScores(loadedStore, weights),
+            (Integer) candidatesSpinner.getValue());
+        MVPSimulator simulator = new MVPSimulator(loadedStore, candidates, weights,
+            (Integer) weightNoiseSpinner.getValue() / 100.0, (Integer) statNoiseSpinner.getValue() / 100.0);
+        ProgressMonitor monitor = new ProgressMonitor(this, 
+            String.format("Simulating %,d trials over %d candidates", trials, candidates.length), null, 0, 100);
+        
+        SwingWorker<MVPSimulator.Result, Void> worker = new SwingWorker<MVPSimulator.Result, Void>() {
+            private long nanos;
+            
+            @Override
+            protected MVPSimulator.Result doInBackground() throws InterruptedException {
+                long start = System.nanoTime();
+                try (Metrics.Timer timer = Metrics.start("simulate")) {
+                    timer.rows(trials);
+                    MVPSimulator.Result result = simulator.run(trials, SIMULATION_SEED, 
+                        (done, total) -> setProgress((int) (done * 100 / total)));
+                    nanos = System.nanoTime() - start;
+                    return result;
+                }
+            }
+            
+            @Override
+            protected void done() {
+                monitor.close();
+                if (isCancelled()) return;
+                
+                try {
+                    MVPSimulator.Result result = get();
+                    if (store != simulated) return; // scores changed meanwhile
+                    model.setOdds(result.rows, result.win, result.podium);
+                    int favourite = 0;
+                    for (int i = 1; i < result.rows.length; i++) {
+                        if (result.win[i] > result.win[favourite]) favourite = i;
+                    }
+                    statsLabel.setText(String.format("Simulated %,d trials over %d candidates in %.2f s | Favourite: %s (%.1f%% win, %.1f%% top 5)",
+                        result.trials, result.rows.length, nanos / 1e9, store.name(result.rows[favourite]),
+                        100 * result.win[favourite], 100 * result.podium[favourite]));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException) return; // cancelled
+                    Metrics.error("Error simulating MVP odds", e.getCause());
+                    JOptionPane.showMessageDialog(MVPViewerEnhanced.this, 
+                        "Error simulating MVP odds: " + e.getCause().getMessage(), 
+                        "Simulation Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+            }
+            if (monitor.isCanceled() && !worker.isDone()) {
+                simulator.cancel();
+                worker.cancel(false);
+            }
+        });
+        worker.execute();
+    }
+    
+    /**
+     * Streams the current view to a file on a background thread, with a
+     * cancellable progress dialog. The view's store and row order are
+     * immutable, so the worker reads them without copying.
+     */
+    private void exportRows(String defaultName, boolean json) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File(defaultName));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION || model.getStore() == null) {
+            return;
+        }
+        
+        PlayerStore exportStore = model.getStore();
+        int[] rows = model.viewRows();
+        Path target = fileChooser.getSelectedFile().toPath();
+        ProgressMonitor monitor = new ProgressMonitor(this, 
+            "Exporting " + rows.length + " players to " + target.getFileName(), null, 0, 100);
+        
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                PlayerExporter.Progress progress = (written, total) -> 
+                    setProgress(total > 0 ? (int) (written * 100L / total) : 100);
+                if (json) {
+                    PlayerExporter.writeJson(exportStore, rows, target, progress);
+                } else {
+                    PlayerExporter.writeCsv(exportStore, rows, target, progress);
+                }
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                monitor.close();
+                if (isCancelled()) return;
+                
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(MVPViewerEnhanced.this, 
+                        json ? "JSON data exported successfully!" : "Data exported successfully!", 
+                        "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(MVPViewerEnhanced.this, 
+                        (json ? "Error exporting JSON: " : "Error exporting data: ") + e.getCause().getMessage(), 
+                        "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+            }
+            if (monitor.isCanceled() && !worker.isDone()) {
+                worker.cancel(true);
+            }
+        });
+        worker.execute();
+    }
+    
+    public static void main(String[] args) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("No display available; use MVPBatch to rank files headlessly.");
+            System.exit(2);
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (args.length > 0) {
+                new MVPViewerEnhanced(Paths.get(args[0])).setVisible(true);
+            } else {
+                new MVPViewerEnhanced().setVisible(true);
+            }
+        });
+    }
+    
+    // Partial load result handed from the loading thread to the EDT
+    private static class LoadProgress {
+        final PlayerStore store;
+        final int[] topRows;
+        
+        LoadProgress(PlayerStore store, int[] topRows) {
+            this.store = store;
+            this.topRows = topRows;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package mvp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide timings of the load, query, table and export stages, so a
+ * slow stage on a production-sized file shows up without a profiler.
+ *
+ * Each stage keeps a count, total and max time, rows processed, bytes
+ * allocated on the calling thread (work handed to fork-join workers is not
+ * counted) and an HdrHistogram-style log-linear histogram of durations
+ * (16 sub-buckets per power of two, so percentiles are within ~6%).
+ * Timed sections are also emitted as JFR "mvp.Stage" events when a
+ * recording is running; see Jfr below.
+ *
+ * Errors reported through error() are printed as before and kept, the
+ * newest MAX_ERRORS of them, for the diagnostics dialog and JSON dump.
+ */
+class Metrics {
+    private static final int MAX_ERRORS = 50;
+
+    private static final ConcurrentHashMap<String, Stage> STAGES = new ConcurrentHashMap<>();
+    private static final ArrayDeque<String> ERRORS = new ArrayDeque<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    /** A running timed section; close it to record it. */
+    static final class Timer implements AutoCloseable {
+        private final Stage stage;
+        private final long start;
+        private final long allocatedAtStart;
+        private final Object event;
+        private long rows;
+
+        private Timer(Stage stage) {
+            this.stage = stage;
+            this.event = Jfr.begin();
+            this.allocatedAtStart = allocatedBytes();
+            this.start = System.nanoTime();
+        }
+
+        /** Rows (or records) processed in this section, for rows/s. */
+        void rows(long count) {
+            rows = count;
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedAtStart < 0 ? 0 : Math.max(0, allocatedBytes() - allocatedAtStart);
+            stage.record(elapsed, rows, allocated);
+            Jfr.commit(event, stage.name, rows, allocated);
+        }
+    }
+
+    /** One stage's totals and percentiles at the time of the call; times in nanoseconds. */
+    static final class Summary {
+        final String stage;
+        final long count;
+        final long total;
+        final long max;
+        final long p50;
+        final long p90;
+        final long p99;
+        final long rows;
+        final long allocated;
+
+        private Summary(Stage s) {
+            stage = s.name;
+            count = s.count;
+            total = s.total;
+            max = s.max;
+            p50 = s.percentile(0.5);
+            p90 = s.percentile(0.9);
+            p99 = s.percentile(0.99);
+            rows = s.rows;
+            allocated = s.allocated;
+        }
+
+        long mean() {
+            return count == 0 ? 0 : total / count;
+        }
+    }
+
+    // Durations are bucketed by power of two, each split into SUB_BUCKETS linear steps
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 2 * SUB_BUCKETS + (62 - SUB_BITS) * SUB_BUCKETS;
+
+    private static final class Stage {
+        final String name;
+        final long[] histogram = new long[BUCKETS];
+        long count;
+        long total;
+        long max;
+        long rows;
+        long allocated;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, long rows, long allocated) {
+            histogram[bucket(nanos)]++;
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+            this.rows += rows;
+            this.allocated += allocated;
+        }
+
+        // Upper bound of the bucket holding the q-quantile, capped at the max seen
+        synchronized long percentile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += histogram[b];
+                if (seen >= rank) return Math.min(upperBound(b), max);
+            }
+            return max;
+        }
+
+        synchronized Summary summary() {
+            return new Summary(this);
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) Math.max(value, 0);
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = (bucket - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long sub = (bucket - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Starts timing a stage; use with try-with-resources:
+     * try (Metrics.Timer timer = Metrics.start("parse")) { ... }
+     */
+    static Timer start(String stage) {
+        return new Timer(STAGES.computeIfAbsent(stage, Stage::new));
+    }
+
+    /** All stages by name. */
+    static List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>();
+        for (Stage stage : new TreeMap<>(STAGES).values()) {
+            summaries.add(stage.summary());
+        }
+        return summaries;
+    }
+
+    /** Prints the message to System.err and keeps it for diagnostics. */
+    static void error(String message) {
+        System.err.println(message);
+        keep(message);
+    }
+
+    /** Like error(message), printing the stack trace too. */
+    static void error(String message, Throwable cause) {
+        System.err.println(message);
+        cause.printStackTrace();
+        keep(message + ": " + cause);
+    }
+
+    private static void keep(String message) {
+        String stamped = new SimpleDateFormat("HH:mm:ss").format(new Date()) + " " + message;
+        synchronized (ERRORS) {
+            if (ERRORS.size() == MAX_ERRORS) ERRORS.removeFirst();
+            ERRORS.addLast(stamped);
+        }
+    }
+
+    /** Recent errors, oldest first. */
+    static List<String> errors() {
+        synchronized (ERRORS) {
+            return new ArrayList<>(ERRORS);
+        }
+    }
+
+    static void reset() {
+        STAGES.clear();
+        synchronized (ERRORS) {
+            ERRORS.clear();
+        }
+    }
+
+    /** Every stage and recent error as JSON; times in milliseconds. */
+    static String toJson() {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder out = new StringBuilder(1024);
+        out.append("{\n  \"heap_used_mb\": ")
+            .append(String.format(Locale.ROOT, "%.1f", (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0))
+            .append(",\n  \"heap_max_mb\": ")
+            .append(String.format(Locale.ROOT, "%.1f", runtime.maxMemory() / 1048576.0))
+            .append(",\n  \"stages\": [");
+        List<Summary> summaries = summaries();
+        for (int i = 0; i < summaries.size(); i++) {
+            Summary s = summaries.get(i);
+            out.append(i == 0 ? "\n" : ",\n").append("    {\"stage\": ").append(json(s.stage))
+                .append(", \"count\": ").append(s.count)
+                .append(", \"total_ms\": ").append(millis(s.total))
+                .append(", \"mean_ms\": ").append(millis(s.mean()))
+                .append(", \"p50_ms\": ").append(millis(s.p50))
+                .append(", \"p90_ms\": ").append(millis(s.p90))
+                .append(", \"p99_ms\": ").append(millis(s.p99))
+                .append(", \"max_ms\": ").append(millis(s.max))
+                .append(", \"rows\": ").append(s.rows)
+                .append(", \"allocated_bytes\": ").append(s.allocated).append('}');
+        }
+        out.append(summaries.isEmpty() ? "],\n" : "\n  ],\n").append("  \"errors\": [");
+        List<String> errors = errors();
+        for (int i = 0; i < errors.size(); i++) {
+            out.append(i == 0 ? "\n    " : ",\n    ").append(json(errors.get(i)));
+        }
+        return out.append(errors.isEmpty() ? "]\n}\n" : "\n  ]\n}\n").toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String json(String value) {
+        return new String(PlayerExporter.jsonString(value), StandardCharsets.UTF_8);
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * JFR events for timed sections. The code base builds for Java 8, which
+     * has no jdk.jfr API to subclass, so the event type is created at run
+     * time with jdk.jfr.EventFactory (JDK 12+) through reflection. On older
+     * JDKs, or if anything here fails, events are silently skipped.
+     */
+    private static class Jfr {
+        private static final Object FACTORY;
+        private static final Method NEW_EVENT;
+        private static final Method IS_ENABLED;
+        private static final Method BEGIN;
+        private static final Method SET;
+        private static final Method COMMIT;
+
+        static {
+            Object factory = null;
+            Method newEvent = null, isEnabled = null, begin = null, set = null, commit = null;
+            try {
+                Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement");
+                Constructor<?> annotation = annotationClass.getConstructor(Class.class, Object.class);
+                Constructor<?> field = Class.forName("jdk.jfr.ValueDescriptor")
+                    .getConstructor(Class.class, String.class, List.class);
+                Class<?> label = Class.forName("jdk.jfr.Label");
+
+                List<Object> type = Arrays.asList(
+                    annotation.newInstance(Class.forName("jdk.jfr.Name"), "mvp.Stage"),
+                    annotation.newInstance(label, "MVP Analyzer Stage"),
+                    annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[]{"NBA MVP Analyzer"}));
+                List<Object> fields = Arrays.asList(
+                    field.newInstance(String.class, "stage",
+                        Collections.singletonList(annotation.newInstance(label, "Stage"))),
+                    field.newInstance(long.class, "rows",
+                        Collections.singletonList(annotation.newInstance(label, "Rows"))),
+                    field.newInstance(long.class, "allocated", Arrays.asList(
+                        annotation.newInstance(label, "Allocated"),
+                        annotation.newInstance(Class.forName("jdk.jfr.DataAmount"), "BYTES"))));
+
+                Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+                factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, type, fields);
+                newEvent = factoryClass.getMethod("newEvent");
+                Class<?> event = Class.forName("jdk.jfr.Event");
+                isEnabled = event.getMethod("isEnabled");
+                begin = event.getMethod("begin");
+                set = event.getMethod("set", int.class, Object.class);
+                commit = event.getMethod("commit");
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                factory = null;
+            }
+            FACTORY = factory;
+            NEW_EVENT = newEvent;
+            IS_ENABLED = isEnabled;
+            BEGIN = begin;
+            SET = set;
+            COMMIT = commit;
+        }
+
+        // A begun event, or null if JFR is unavailable or not recording this type
+        static Object begin() {
+            if (FACTORY == null) return null;
+            try {
+                Object event = NEW_EVENT.invoke(FACTORY);
+                if (!(Boolean) IS_ENABLED.invoke(event)) return null;
+                BEGIN.invoke(event);
+                return event;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        static void commit(Object event, String stage, long rows, long allocated) {
+            if (event == null) return;
+            try {
+                SET.invoke(event, 0, stage);
+                SET.invoke(event, 1, rows);
+                SET.invoke(event, 2, allocated);
+                COMMIT.invoke(event);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // diagnostics only
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package mvp;
+
+import java.util.*;
+
+/**
+ * Substring search over player names, built once per load.
+ *
+ * Distinct names are indexed by their lowercase character trigrams; a query
+ * of three or more characters is answered by verifying only the names in
+ * its rarest trigram's posting list. Each player id also maps to its rows,
+ * so matches expand to store rows without scanning the whole table. The
+ * last result is remembered: a query that contains the previous one (the
+ * usual case while typing) only re-checks the previous matches. Searches
+ * may run concurrently.
+ */
+class NameIndex {
+    private final PlayerStore store;
+    private final String[] lowerNames;
+    private final Map<Long, int[]> trigrams = new HashMap<>();
+
+    // Rows of each player id: rowsByPlayer[rowStart[id] .. rowStart[id + 1])
+    private final int[] rowStart;
+    private final int[] rowsByPlayer;
+
+    // Previous query and its matches, swapped as one object so concurrent searches stay consistent
+    private volatile LastQuery last;
+
+    NameIndex(PlayerStore store) {
+        this.store = store;
+        int players = store.playerCount();
+        lowerNames = new String[players];
+        for (int id = 0; id < players; id++) {
+            lowerNames[id] = store.playerName(id).toLowerCase();
+        }
+        buildTrigrams();
+
+        rowStart = new int[players + 1];
+        int size = store.size();
+        for (int row = 0; row < size; row++) {
+            rowStart[store.playerIdAt(row) + 1]++;
+        }
+        for (int id = 0; id < players; id++) {
+            rowStart[id + 1] += rowStart[id];
+        }
+        rowsByPlayer = new int[size];
+        int[] next = Arrays.copyOf(rowStart, players);
+        for (int row = 0; row < size; row++) {
+            rowsByPlayer[next[store.playerIdAt(row)]++] = row;
+        }
+    }
+
+    private void buildTrigrams() {
+        // First pass counts postings, second pass fills them in id order
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int id = 0; id < lowerNames.length; id++) {
+            String name = lowerNames[id];
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                long key = key(name, i);
+                int[] count = counts.get(key);
+                if (count == null) {
+                    count = new int[2];
+                    count[1] = -1;
+                    counts.put(key, count);
+                }
+                // count[1] remembers the last id so repeated trigrams count once
+                if (count[1] != id) {
+                    count[0]++;
+                    count[1] = id;
+                }
+            }
+        }
+
+        for (Map.Entry<Long, int[]> entry : counts.entrySet()) {
+            trigrams.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+            entry.getValue()[1] = -1;
+        }
+        for (int id = 0; id < lowerNames.length; id++) {
+            String name = lowerNames[id];
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                long key = key(name, i);
+                int[] count = counts.get(key);
+                if (count[1] != id) {
+                    trigrams.get(key)[count[0]++] = id;
+                    count[1] = id;
+                }
+            }
+        }
+    }
+
+    private static long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /** True if this index was built over the given store's rows. */
+    boolean covers(PlayerStore store) {
+        return this.store.sameRows(store);
+    }
+
+    /** Ids of players whose name contains the text, case-insensitively, in id order. */
+    int[] matchPlayers(String text) {
+        String query = text.toLowerCase();
+        int[] candidates;
+        LastQuery previous = last;
+        if (previous != null && query.contains(previous.query)) {
+            candidates = previous.matches;
+        } else if (query.length() >= 3) {
+            candidates = rarestPosting(query);
+        } else {
+            candidates = null;
+        }
+
+        int[] matches;
+        if (candidates == null) {
+            matches = new int[lowerNames.length];
+            int count = 0;
+            for (int id = 0; id < lowerNames.length; id++) {
+                if (lowerNames[id].contains(query)) matches[count++] = id;
+            }
+            matches = Arrays.copyOf(matches, count);
+        } else {
+            matches = new int[candidates.length];
+            int count = 0;
+            for (int id : candidates) {
+                if (lowerNames[id].contains(query)) matches[count++] = id;
+            }
+            matches = Arrays.copyOf(matches, count);
+        }
+
+        last = new LastQuery(query, matches);
+        return matches;
+    }
+
+    private int[] rarestPosting(String query) {
+        int[] best = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            int[] posting = trigrams.get(key(query, i));
+            if (posting == null) return new int[0];
+            if (best == null || posting.length < best.length) best = posting;
+        }
+        return best;
+    }
+
+    /** Store rows whose player name contains the text, in ascending row order. */
+    int[] search(String text) {
+        int[] players = matchPlayers(text);
+        int count = 0;
+        for (int id : players) {
+            count += rowStart[id + 1] - rowStart[id];
+        }
+
+        int[] rows = new int[count];
+        if (count > store.size() >>> 4) {
+            // Large result: one sequential pass yields load order directly
+            boolean[] matched = new boolean[lowerNames.length];
+            for (int id : players) {
+                matched[id] = true;
+            }
+            int n = 0;
+            for (int row = 0, size = store.size(); row < size; row++) {
+                if (matched[store.playerIdAt(row)]) rows[n++] = row;
+            }
+        } else {
+            int n = 0;
+            for (int id : players) {
+                int length = rowStart[id + 1] - rowStart[id];
+                System.arraycopy(rowsByPlayer, rowStart[id], rows, n, length);
+                n += length;
+            }
+            // A player's rows are already ordered; restore overall load order
+            if (players.length > 1) {
+                Arrays.sort(rows);
+            }
+        }
+        return rows;
+    }
+
+    private static class LastQuery {
+        final String query;
+        final int[] matches;
+
+        LastQuery(String query, int[] matches) {
+            this.query = query;
+            this.matches = matches;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package mvp;
+
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * Loads player rows from a CSV file into a PlayerStore. Columns are found
+ * by header name, so the trimmed mvp_candidates.csv, the enhanced export
+ * and the raw per-game dump (e.g. NBA_2024_per_game.csv) all load. A raw
+ * dump is scored in-process with MVPScorer, like NBAMVPSORTEREnhanced.py.
+ */
+class PlayerCsvLoader {
+    // Header names, in preference order where several layouts differ
+    private static final String[] SCORE_COLUMNS = {"MVP_Score", "MVP_Score_Composite", "MVP_Score_Basic"};
+
+    // Same cut as load_data() in the Python scripts
+    static final double MIN_GAMES = 20;
+
+    // Rows between progress/cancellation checks, and minimum time between updates
+    private static final int CHECK_INTERVAL = 4096;
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+
+    /** Receives partial results on the loading thread while a load runs. */
+    interface Progress {
+        void update(PlayerStore loaded, long position, long length);
+    }
+
+    static PlayerStore load(Path file) throws IOException {
+        return load(file, null);
+    }
+
+    /**
+     * Loads the file, reporting progress at most every 100 ms. Interrupting
+     * the loading thread aborts the load with an InterruptedIOException.
+     */
+    static PlayerStore load(Path file, Progress progress) throws IOException {
+        try (CsvReader reader = new CsvReader(file)) {
+            Layout layout = new Layout(reader);
+            // Rough row estimate from the file size to avoid regrowing columns
+            PlayerStore store = new PlayerStore((int) Math.min(reader.length() / 128, 1 << 24));
+            try (Metrics.Timer timer = Metrics.start("parse")) {
+                readRows(reader, layout, store, progress, file);
+                timer.rows(store.size());
+            }
+            return finish(store, layout);
+        }
+    }
+
+    /**
+     * Parses only the records after offset, which must be where base's
+     * rows ended (the file's previous length), and returns base plus those
+     * rows. A raw per-game file is rescored as a whole, since team means
+     * and score ranges depend on every row.
+     */
+    static PlayerStore append(Path file, long offset, PlayerStore base) throws IOException {
+        try (CsvReader reader = new CsvReader(file)) {
+            Layout layout = new Layout(reader);
+            reader.seek(offset);
+            PlayerStore store = base.appendable((int) Math.min((reader.length() - offset) / 128, 1 << 24));
+            try (Metrics.Timer timer = Metrics.start("parse:append")) {
+                readRows(reader, layout, store, null, file);
+                timer.rows(store.size() - base.size());
+            }
+            return finish(store, layout);
+        }
+    }
+
+    // Column indexes of one file's header
+    private static class Layout {
+        final int player, team, pts, ast, trb, stl, blk, score;
+        final int games, pos, fga, fta, tov;
+        final boolean raw, scoreRaw;
+
+        Layout(CsvReader reader) throws IOException {
+            player = require(reader, "Player");
+            team = require(reader, "Team");
+            pts = require(reader, "PTS");
+            ast = require(reader, "AST");
+            trb = require(reader, "TRB");
+            stl = require(reader, "STL");
+            blk = require(reader, "BLK");
+            int found = -1;
+            for (String name : SCORE_COLUMNS) {
+                if (found < 0) found = reader.column(name);
+            }
+            score = found;
+
+            // Raw per-game inputs; scored in-process when no score column exists
+            games = reader.column("G");
+            pos = reader.column("Pos");
+            fga = reader.column("FGA");
+            fta = reader.column("FTA");
+            tov = reader.column("TOV");
+            raw = games >= 0 && pos >= 0 && fga >= 0 && fta >= 0 && tov >= 0;
+            scoreRaw = score < 0 && raw;
+        }
+    }
+
+    private static void readRows(CsvReader reader, Layout layout, PlayerStore store, Progress progress, Path file)
+            throws IOException {
+        long lastPublish = System.nanoTime();
+        int rows = 0;
+        while (reader.next()) {
+            if (++rows % CHECK_INTERVAL == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Load cancelled: " + file);
+                }
+                long now = System.nanoTime();
+                if (progress != null && now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                    progress.update(store, reader.position(), reader.length());
+                    lastPublish = now;
+                }
+            }
+            try {
+                // Parse the whole record before adding it, so a bad field drops the row rather than half-adding it
+                double games = 0, fga = 0, fta = 0, tov = 0;
+                String position = null;
+                if (layout.scoreRaw) {
+                    // Missing stats count as 0 (the script's fillna(0))
+                    games = reader.getDouble(layout.games, 0);
+                    if (games < MIN_GAMES) continue;
+                }
+                if (layout.raw) {
+                    if (!layout.scoreRaw) games = reader.getDouble(layout.games, 0);
+                    fga = reader.getDouble(layout.fga, 0);
+                    fta = reader.getDouble(layout.fta, 0);
+                    tov = reader.getDouble(layout.tov, 0);
+                    position = reader.getString(layout.pos);
+                }
+                double points, assists, rebounds, steals, blocks, mvpScore;
+                if (layout.scoreRaw) {
+                    points = reader.getDouble(layout.pts, 0);
+                    assists = reader.getDouble(layout.ast, 0);
+                    rebounds = reader.getDouble(layout.trb, 0);
+                    steals = reader.getDouble(layout.stl, 0);
+                    blocks = reader.getDouble(layout.blk, 0);
+                    // Basic score until the whole file is scored
+                    mvpScore = basicScore(points, assists, rebounds, steals, blocks);
+                } else {
+                    points = reader.getDouble(layout.pts);
+                    assists = reader.getDouble(layout.ast);
+                    rebounds = reader.getDouble(layout.trb);
+                    steals = reader.getDouble(layout.stl);
+                    blocks = reader.getDouble(layout.blk);
+                    // No score and no raw inputs; fall back to the basic formula
+                    mvpScore = layout.score >= 0 ? reader.getDouble(layout.score)
+                        : basicScore(points, assists, rebounds, steals, blocks);
+                }
+
+                int row = store.add(reader.getString(layout.player), reader.getString(layout.team),
+                    points, assists, rebounds, steals, blocks, mvpScore);
+                if (layout.raw) {
+                    store.setRawStats(row, position, games, fga, fta, tov);
+                }
+            } catch (NumberFormatException e) {
+                Metrics.error("Error parsing line " + reader.lineNumber() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // calculate_basic_mvp_score with the default weights
+    private static double basicScore(double points, double assists, double rebounds, double steals, double blocks) {
+        double[] w = MVPScorer.DEFAULT_WEIGHTS;
+        return points * w[0] + assists * w[1] + rebounds * w[2] + steals * w[3] + blocks * w[4];
+    }
+
+    private static PlayerStore finish(PlayerStore store, Layout layout) {
+        // With no rows kept the store never got raw columns, and there is nothing to score
+        if (layout.scoreRaw && !store.isEmpty()) {
+            try (Metrics.Timer timer = Metrics.start("score")) {
+                timer.rows(store.size());
+                return store.withMvpScores(new MVPScorer().score(store).composite);
+            }
+        }
+        return store;
+    }
+
+    private static int require(CsvReader reader, String name) throws IOException {
+        int column = reader.column(name);
+        if (column < 0) {
+            throw new IOException("Missing column: " + name);
+        }
+        return column;
+    }
+}
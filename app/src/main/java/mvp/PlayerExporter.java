@@ -0,0 +1,386 @@
+package mvp;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Date;
+
+/**
+ * Writes ranked rows of a PlayerStore in the viewer's CSV and JSON export
+ * layouts. Rank is the position in the given row order.
+ *
+ * Rows stream straight from the store columns into one large byte buffer
+ * that is drained to a FileChannel, so nothing is boxed per cell. Names and
+ * teams are escaped and UTF-8 encoded once per dictionary id, and numbers
+ * go through an allocation-free formatter that rounds like "#.##" (half-even,
+ * at most two decimals) but always with a '.' separator.
+ */
+class PlayerExporter {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Per response when streaming to a socket, where many may run at once
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    // Largest single write between buffer checks: a long or a formatted number
+    private static final int MAX_NUMBER = 32;
+
+    // Rows between progress/cancellation checks, and minimum time between updates
+    private static final int CHECK_INTERVAL = 4096;
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+
+    // Scaled values below this are exact enough to round without BigDecimal
+    private static final double FAST_LIMIT = 1e9;
+
+    private static final String CSV_HEADER = "Rank,Player,Team,Points,Assists,Rebounds,Steals,Blocks,MVP_Score";
+    private static final String[] JSON_FIELDS = {"points", "assists", "rebounds", "steals", "blocks", "mvp_score"};
+
+    /** Receives the number of rows written so far on the exporting thread. */
+    interface Progress {
+        void update(int written, int total);
+    }
+
+    private final PlayerStore store;
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final byte[] newline = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private final byte[][] players;
+    private final byte[][] teams;
+    private final boolean json;
+    private int position;
+
+    private PlayerExporter(PlayerStore store, WritableByteChannel channel, boolean json, int bufferSize) {
+        this.store = store;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.json = json;
+        this.players = new byte[store.playerCount()][];
+        this.teams = new byte[store.teamCount()][];
+    }
+
+    static void writeCsv(PlayerStore store, int[] rows, Path file) throws IOException {
+        writeCsv(store, rows, file, null);
+    }
+
+    static void writeJson(PlayerStore store, int[] rows, Path file) throws IOException {
+        writeJson(store, rows, file, null);
+    }
+
+    /**
+     * Writes the rows as CSV, reporting progress at most every 100 ms.
+     * Interrupting the thread aborts with an InterruptedIOException and
+     * deletes the partial file.
+     */
+    static void writeCsv(PlayerStore store, int[] rows, Path file, Progress progress) throws IOException {
+        export(store, rows, file, progress, false);
+    }
+
+    /** Writes the rows as JSON; progress and cancellation as for writeCsv. */
+    static void writeJson(PlayerStore store, int[] rows, Path file, Progress progress) throws IOException {
+        export(store, rows, file, progress, true);
+    }
+
+    private static void export(PlayerStore store, int[] rows, Path file, Progress progress, boolean json)
+            throws IOException {
+        boolean done = false;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                Metrics.Timer timer = Metrics.start(json ? "export:json" : "export:csv")) {
+            timer.rows(rows.length);
+            write(store, rows, channel, progress, json, BUFFER_SIZE, file);
+            done = true;
+        } finally {
+            if (!done) Files.deleteIfExists(file);
+        }
+    }
+
+    /** The JSON export of the rows as bytes, e.g. for an HTTP response. */
+    static byte[] toJson(PlayerStore store, int[] rows) {
+        // Roughly 300 bytes per player object
+        int estimate = (int) Math.min(BUFFER_SIZE, rows.length * 300L + 256);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimate);
+        try {
+            write(store, rows, Channels.newChannel(out), null, true, Math.max(estimate, 4096), null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory writes do not fail
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Streams the JSON export of the rows to out (not closed) through a small
+     * buffer, e.g. for an HTTP response too large to hold in memory.
+     */
+    static void writeJson(PlayerStore store, int[] rows, OutputStream out) throws IOException {
+        write(store, rows, Channels.newChannel(out), null, true, STREAM_BUFFER_SIZE, null);
+    }
+
+    private static void write(PlayerStore store, int[] rows, WritableByteChannel channel, Progress progress,
+            boolean json, int bufferSize, Path file) throws IOException {
+        PlayerExporter exporter = new PlayerExporter(store, channel, json, bufferSize);
+        if (json) {
+            exporter.json(rows, progress, file);
+        } else {
+            exporter.csv(rows, progress, file);
+        }
+        exporter.flush();
+    }
+
+    private void csv(int[] rows, Progress progress, Path file) throws IOException {
+        ascii(CSV_HEADER);
+        newline();
+
+        long lastPublish = System.nanoTime();
+        for (int i = 0; i < rows.length; i++) {
+            lastPublish = check(i, rows.length, progress, lastPublish, file);
+            int row = rows[i];
+            ensure(MAX_NUMBER + 1);
+            integer(i + 1);
+            buffer[position++] = ',';
+            bytes(player(row));
+            ensure(1);
+            buffer[position++] = ',';
+            bytes(team(row));
+            for (int column = PlayerStore.POINTS; column <= PlayerStore.MVP_SCORE; column++) {
+                ensure(MAX_NUMBER + 1);
+                buffer[position++] = ',';
+                decimal(store.get(column, row));
+            }
+            newline();
+        }
+        if (progress != null) progress.update(rows.length, rows.length);
+    }
+
+    private void json(int[] rows, Progress progress, Path file) throws IOException {
+        line("{");
+        line("  \"mvp_analysis\": {");
+        ascii("    \"export_date\": ");
+        bytes(jsonString(new Date().toString()));
+        line(",");
+        ascii("    \"total_players\": ");
+        ensure(MAX_NUMBER);
+        integer(rows.length);
+        line(",");
+        line("    \"players\": [");
+
+        long lastPublish = System.nanoTime();
+        for (int i = 0; i < rows.length; i++) {
+            lastPublish = check(i, rows.length, progress, lastPublish, file);
+            int row = rows[i];
+            line("      {");
+            ascii("        \"rank\": ");
+            ensure(MAX_NUMBER);
+            integer(i + 1);
+            line(",");
+            ascii("        \"player\": ");
+            bytes(player(row));
+            line(",");
+            ascii("        \"team\": ");
+            bytes(team(row));
+            line(",");
+            for (int column = PlayerStore.POINTS; column <= PlayerStore.MVP_SCORE; column++) {
+                ascii("        \"");
+                ascii(JSON_FIELDS[column - PlayerStore.POINTS]);
+                ascii("\": ");
+                ensure(MAX_NUMBER);
+                decimal(store.get(column, row));
+                if (column < PlayerStore.MVP_SCORE) ascii(",");
+                newline();
+            }
+            ascii(i < rows.length - 1 ? "      }," : "      }");
+            newline();
+        }
+
+        line("    ]");
+        line("  }");
+        line("}");
+        if (progress != null) progress.update(rows.length, rows.length);
+    }
+
+    private long check(int written, int total, Progress progress, long lastPublish, Path file)
+            throws IOException {
+        if (written % CHECK_INTERVAL != 0 || written == 0) return lastPublish;
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Export cancelled: " + file);
+        }
+        long now = System.nanoTime();
+        if (progress != null && now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+            progress.update(written, total);
+            return now;
+        }
+        return lastPublish;
+    }
+
+    // Escaped, quoted (where needed) UTF-8 name of the row's player, cached per id
+    private byte[] player(int row) {
+        int id = store.playerIdAt(row);
+        byte[] encoded = players[id];
+        if (encoded == null) {
+            encoded = encode(store.playerName(id));
+            players[id] = encoded;
+        }
+        return encoded;
+    }
+
+    private byte[] team(int row) {
+        int id = store.teamIdAt(row);
+        byte[] encoded = teams[id];
+        if (encoded == null) {
+            encoded = encode(store.teamName(id));
+            teams[id] = encoded;
+        }
+        return encoded;
+    }
+
+    private byte[] encode(String value) {
+        return json ? jsonString(value) : csvField(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** The value as a CSV field, quoted only if it holds a separator, quote or line break. */
+    static String csvField(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+        }
+        return value;
+    }
+
+    /** The value as a quoted JSON string literal in UTF-8. */
+    static byte[] jsonString(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2);
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the value rounded half-even to at most two decimals, without
+     * trailing zeros, like DecimalFormat("#.##") in an English locale. In
+     * JSON, NaN and infinities are written as null.
+     */
+    private void decimal(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            if (json) {
+                ascii("null");
+            } else {
+                ascii(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+            }
+            return;
+        }
+
+        long cents = roundedCents(value);
+        if (cents == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        if (value < 0) buffer[position++] = '-';
+        integer(cents / 100);
+        int fraction = (int) (cents % 100);
+        if (fraction != 0) {
+            buffer[position++] = '.';
+            buffer[position++] = (byte) ('0' + fraction / 10);
+            if (fraction % 10 != 0) buffer[position++] = (byte) ('0' + fraction % 10);
+        }
+    }
+
+    /** |value| in hundredths, rounded half-even as "#.##" does; value must be finite. */
+    static long roundedCents(double value) {
+        double scaled = Math.abs(value) * 100;
+        if (scaled >= FAST_LIMIT) {
+            return exactCents(value);
+        }
+        long cents = (long) scaled;
+        double fraction = scaled - cents;
+        if (Math.abs(fraction - 0.5) < 1e-6) {
+            // Too close to a tie to trust the scaled product; round the exact binary value
+            return exactCents(value);
+        }
+        return fraction > 0.5 ? cents + 1 : cents;
+    }
+
+    private static long exactCents(double value) {
+        return new BigDecimal(value).abs().movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue();
+    }
+
+    // Callers ensure room for MAX_NUMBER bytes
+    private void integer(long value) {
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte b = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = b;
+        }
+    }
+
+    private void line(String text) throws IOException {
+        ascii(text);
+        newline();
+    }
+
+    private void newline() throws IOException {
+        bytes(newline);
+    }
+
+    private void ascii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void bytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            flush();
+            channel.write(ByteBuffer.wrap(bytes));
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (position + length > buffer.length) flush();
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer out = ByteBuffer.wrap(buffer, 0, position);
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package mvp;
+
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * One player's seasons with season-over-season MVP score changes and
+ * trailing averages. Seasons are loaded in the background on open.
+ */
+class PlayerHistoryDialog extends JDialog {
+    // Seasons in the trailing averages
+    static final int WINDOW = 3;
+
+    private static final String[] COLUMNS = {
+        "Season", "Team", "Points", "Assists", "Rebounds", "Steals", "Blocks", "MVP Score",
+        "MVP Change", "MVP " + WINDOW + "-yr Avg", "Points " + WINDOW + "-yr Avg", "Season Rank"
+    };
+
+    // Column of the season-over-season change
+    private static final int CHANGE_COLUMN = 8;
+
+    private final DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? Integer.class : column == 1 || column == 11 ? String.class : Double.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final JLabel summary = new JLabel("Loading seasons...");
+
+    PlayerHistoryDialog(Frame owner, SeasonStore seasons, String player) {
+        super(owner, player + " - Season History", false);
+        JTable table = new JTable(model);
+        table.setRowHeight(22);
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        StatCellRenderer.install(table);
+        // Changes keep their sign, e.g. "+3.5"
+        table.getColumnModel().getColumn(CHANGE_COLUMN).setCellRenderer(new StatCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                super.setValue(value);
+                if (value instanceof Double && (Double) value > 0 && !getText().equals("0")) setText("+" + getText());
+            }
+        });
+
+        summary.setBorder(new EmptyBorder(8, 10, 8, 10));
+        summary.setFont(new Font("Arial", Font.PLAIN, 12));
+        setLayout(new BorderLayout());
+        add(summary, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        setSize(1000, 400);
+        setLocationRelativeTo(owner);
+
+        int[] years = seasons.seasons();
+        new SwingWorker<List<SeasonStore.SeasonLine>, Void>() {
+            @Override
+            protected List<SeasonStore.SeasonLine> doInBackground() throws Exception {
+                return seasons.history(player, years[0], years[years.length - 1]);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    show(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    summary.setText("Error loading seasons: " + e.getCause().getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void show(List<SeasonStore.SeasonLine> lines) {
+        if (lines.isEmpty()) {
+            summary.setText("No seasons found for this player");
+            return;
+        }
+
+        int n = lines.size();
+        double[] scores = new double[n];
+        double[] points = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = lines.get(i).stats[PlayerStore.MVP_SCORE];
+            points[i] = lines.get(i).stats[PlayerStore.POINTS];
+        }
+        double[] scoreAverages = SeasonStore.rolling(scores, WINDOW);
+        double[] pointAverages = SeasonStore.rolling(points, WINDOW);
+
+        int best = 0;
+        for (int i = 0; i < n; i++) {
+            SeasonStore.SeasonLine line = lines.get(i);
+            Object[] row = new Object[COLUMNS.length];
+            row[0] = line.season;
+            row[1] = line.team;
+            for (int column = PlayerStore.POINTS; column <= PlayerStore.MVP_SCORE; column++) {
+                row[2 + column] = line.stats[column];
+            }
+            row[CHANGE_COLUMN] = i == 0 ? Double.NaN : scores[i] - scores[i - 1];
+            row[9] = scoreAverages[i];
+            row[10] = pointAverages[i];
+            row[11] = line.rank + " / " + line.players;
+            model.addRow(row);
+            if (scores[i] > scores[best]) best = i;
+        }
+        summary.setText(String.format("%d seasons (%d-%d) | Best MVP score: %.1f in %d", 
+            n, lines.get(0).season, lines.get(n - 1).season, scores[best], lines.get(best).season));
+    }
+}
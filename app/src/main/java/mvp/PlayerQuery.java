@@ -0,0 +1,129 @@
+package mvp;
+
+import java.util.Arrays;
+
+/**
+ * The viewer's filter and sort semantics without any Swing: name search,
+ * team filter, sort column and direction, and an optional top-K limit.
+ */
+class PlayerQuery {
+    /** Sort names used by the service and batch CLI, and their columns. */
+    static final String[] SORT_NAMES = {
+        "mvp_score", "points", "assists", "rebounds", "steals", "blocks", "player"
+    };
+    private static final int[] SORT_COLUMNS = {
+        PlayerStore.MVP_SCORE, PlayerStore.POINTS, PlayerStore.ASSISTS, PlayerStore.REBOUNDS,
+        PlayerStore.STEALS, PlayerStore.BLOCKS, PlayerStore.PLAYER_NAME
+    };
+
+    /** Column for a sort name (see SORT_NAMES), or -1 if unknown. */
+    static int columnForName(String name) {
+        for (int i = 0; i < SORT_NAMES.length; i++) {
+            if (SORT_NAMES[i].equals(name)) return SORT_COLUMNS[i];
+        }
+        return -1;
+    }
+
+    /** Sort column for a "Sort by" label, defaulting to MVP score. */
+    static int column(String label) {
+        switch (label) {
+            case "Points": return PlayerStore.POINTS;
+            case "Assists": return PlayerStore.ASSISTS;
+            case "Rebounds": return PlayerStore.REBOUNDS;
+            case "Steals": return PlayerStore.STEALS;
+            case "Blocks": return PlayerStore.BLOCKS;
+            case "Player Name": return PlayerStore.PLAYER_NAME;
+            default: return PlayerStore.MVP_SCORE;
+        }
+    }
+
+    /**
+     * Rows matching the search text and team (either may be empty/null),
+     * ordered by the column. A limit of 0 or less returns every match.
+     *
+     * @param names index over the store's rows; only used for a non-empty search
+     * @param sorted pre-sorted orders, or null to sort on the fly
+     */
+    static int[] run(PlayerStore store, NameIndex names, SortIndex sorted,
+            String searchText, String team, int column, boolean ascending, int limit) {
+        return run(store, names, sorted, searchText, team, null, column, ascending, limit);
+    }
+
+    /**
+     * Like run, also keeping only the rows that match the condition of
+     * where (may be null). Its ORDER BY and LIMIT are left to the caller,
+     * which passes them as column, ascending and limit. A query naming
+     * fields the store lacks throws IllegalArgumentException.
+     */
+    static int[] run(PlayerStore store, NameIndex names, SortIndex sorted, String searchText, String team,
+            StatQuery where, int column, boolean ascending, int limit) {
+        if (where != null) {
+            where.check(store);
+        }
+        // Apply search filter; null rows means no filter is active
+        boolean search = searchText != null && !searchText.isEmpty();
+        boolean condition = where != null && where.hasCondition();
+        int[] filtered = null;
+        if (search || team != null || condition) {
+            try (Metrics.Timer timer = Metrics.start("filter")) {
+                long[] matches = null;
+                if (condition) {
+                    try (Metrics.Timer query = Metrics.start("filter:query")) {
+                        query.rows(store.size());
+                        matches = where.matches(store);
+                    }
+                }
+
+                if (search) {
+                    filtered = names.search(searchText);
+                    if (matches != null) {
+                        filtered = keep(filtered, matches);
+                    }
+                } else if (matches != null) {
+                    filtered = StatQuery.rows(matches);
+                }
+
+                // Apply team filter
+                if (team != null) {
+                    filtered = store.filterTeam(filtered, team);
+                }
+                timer.rows(filtered.length);
+            }
+        }
+
+        try (Metrics.Timer timer = Metrics.start("sort")) {
+            int[] rows = sort(store, sorted, filtered, column, ascending, limit);
+            timer.rows(rows.length);
+            return rows;
+        }
+    }
+
+    // The rows whose bit is set, in input order
+    private static int[] keep(int[] rows, long[] bits) {
+        int[] kept = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            if ((bits[row >>> 6] & (1L << row)) != 0) kept[count++] = row;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    private static int[] sort(PlayerStore store, SortIndex sorted, int[] filtered, int column,
+            boolean ascending, int limit) {
+        if (sorted != null && sorted.covers(store, column)) {
+            return sorted.select(column, ascending, filtered, limit > 0 ? limit : Integer.MAX_VALUE);
+        } else if (limit > 0) {
+            // No usable index (partial load, slider drag): bounded heap instead of a full sort
+            TopK top = new TopK(limit, ascending);
+            double[] keys = store.sortKeys(column);
+            if (filtered != null) {
+                top.offerRows(keys, filtered);
+            } else {
+                top.offerRange(keys, 0, store.size());
+            }
+            return top.toSortedRows();
+        } else {
+            return store.sort(filtered != null ? filtered : store.allRows(), column, ascending);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package mvp;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar cache of a parsed CSV, stored next to it as
+ * "<file>.mvpbin". The first load of a file parses the CSV and writes the
+ * snapshot; later loads memory-map the snapshot and copy each column out
+ * in one bulk read, skipping text parsing and scoring entirely.
+ *
+ * A snapshot records the source's Signature (size, modification time and
+ * CRCs of its first and last 64 KB); if any differ, or the format version
+ * changed, the snapshot is ignored and rewritten after the next parse.
+ *
+ * Layout (little-endian): header, three string tables (players, teams,
+ * positions) padded to 8 bytes, then every double column followed by the
+ * int id columns. Raw per-game columns are present only if flagged.
+ */
+class PlayerSnapshot {
+    static final String EXTENSION = ".mvpbin";
+
+    private static final int MAGIC = 0x4d565042; // "MVPB"
+    private static final int VERSION = 2;
+    private static final int FLAG_RAW = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SAMPLE_SIZE = 64 * 1024;
+
+    // Stat columns stored when the store has no raw inputs
+    private static final int BASIC_COLUMNS = PlayerStore.MVP_SCORE + 1;
+
+    /**
+     * Identity of a source file's contents, cheap enough to check on every
+     * refresh: size, mtime and CRCs of the first and last 64 KB.
+     */
+    static final class Signature {
+        final long size;
+        final long modified;
+        final long head;
+        final long tail;
+
+        Signature(long size, long modified, long head, long tail) {
+            this.size = size;
+            this.modified = modified;
+            this.head = head;
+            this.tail = tail;
+        }
+
+        static Signature of(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                return new Signature(size, modified, crc(channel, 0, Math.min(size, SAMPLE_SIZE)),
+                    crc(channel, Math.max(0, size - SAMPLE_SIZE), size));
+            }
+        }
+
+        /**
+         * True if the file now described by current is this file with whole
+         * records appended: it grew, the previously sampled bytes are
+         * unchanged, and the old contents ended with a line break.
+         */
+        boolean isPrefixOf(Path file, Signature current) throws IOException {
+            if (current.size <= size || size == 0) return false;
+            if (size >= SAMPLE_SIZE && current.head != head) return false;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, size - 1);
+                return last.get(0) == '\n' && crc(channel, Math.max(0, size - SAMPLE_SIZE), size) == tail;
+            }
+        }
+
+        private static long crc(FileChannel channel, long from, long to) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, from + buffer.position()) < 0) break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.position());
+            return crc.getValue();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Signature)) return false;
+            Signature other = (Signature) o;
+            return size == other.size && modified == other.modified && head == other.head && tail == other.tail;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(tail);
+        }
+    }
+
+    static Path pathFor(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Loads the source from its snapshot if one matches the signature,
+     * otherwise parses the CSV and writes a fresh snapshot. Failing to write
+     * the snapshot (e.g. a read-only directory) is reported but not fatal.
+     */
+    static PlayerStore load(Path source, Signature signature, PlayerCsvLoader.Progress progress)
+            throws IOException {
+        PlayerStore cached = read(source, signature);
+        if (cached != null) {
+            return cached;
+        }
+
+        PlayerStore store = PlayerCsvLoader.load(source, progress);
+        try {
+            write(source, signature, store);
+        } catch (IOException e) {
+            Metrics.error("Could not write snapshot " + pathFor(source) + ": " + e.getMessage());
+        }
+        return store;
+    }
+
+    /**
+     * Brings base (loaded when the source matched previous) up to date with
+     * the source as described by current. If the file only had records
+     * appended, just those are parsed; otherwise it is loaded afresh. The
+     * snapshot is rewritten either way.
+     */
+    static PlayerStore reload(Path source, Signature previous, Signature current, PlayerStore base)
+            throws IOException {
+        if (base == null || previous == null || !previous.isPrefixOf(source, current)) {
+            return load(source, current, null);
+        }
+        PlayerStore store = PlayerCsvLoader.append(source, previous.size, base);
+        try {
+            write(source, current, store);
+        } catch (IOException e) {
+            Metrics.error("Could not write snapshot " + pathFor(source) + ": " + e.getMessage());
+        }
+        return store;
+    }
+
+    /** The snapshot's store, or null if there is no valid snapshot for this signature. */
+    static PlayerStore read(Path source, Signature signature) {
+        Path path = pathFor(source);
+        if (!Files.isRegularFile(path)) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                Metrics.Timer timer = Metrics.start("snapshot:read")) {
+            long length = channel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) return null;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) return null;
+            Signature stored = new Signature(mapped.getLong(), mapped.getLong(), mapped.getLong(), mapped.getLong());
+            if (!stored.equals(signature)) return null;
+            int size = mapped.getInt();
+            int flags = mapped.getInt();
+            int playerCount = mapped.getInt();
+            int teamCount = mapped.getInt();
+            int positionCount = mapped.getInt();
+            mapped.getInt(); // reserved
+            boolean raw = (flags & FLAG_RAW) != 0;
+
+            String[] players = readStrings(mapped, playerCount);
+            String[] teams = readStrings(mapped, teamCount);
+            String[] positions = readStrings(mapped, positionCount);
+            align(mapped);
+
+            double[][] stats = new double[PlayerStore.STAT_COUNT][];
+            for (int column = 0, columns = raw ? PlayerStore.STAT_COUNT : BASIC_COLUMNS; column < columns; column++) {
+                stats[column] = new double[size];
+                mapped.asDoubleBuffer().get(stats[column]);
+                mapped.position(mapped.position() + size * 8);
+            }
+            int[] playerIds = readInts(mapped, size);
+            int[] teamIds = readInts(mapped, size);
+            int[] positionIds = raw ? readInts(mapped, size) : null;
+            checkIds(playerIds, playerCount);
+            checkIds(teamIds, teamCount);
+            if (raw) checkIds(positionIds, positionCount);
+            timer.rows(size);
+
+            return PlayerStore.fromColumns(size, stats, playerIds, teamIds, positionIds, players, teams, positions);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or foreign file is just a cache miss
+            Metrics.error("Ignoring snapshot " + path + ": " + e);
+            return null;
+        }
+    }
+
+    /** Writes the store's snapshot atomically (temp file, then rename). */
+    static void write(Path source, Signature signature, PlayerStore store) throws IOException {
+        int size = store.size();
+        boolean raw = store.hasRawStats();
+        byte[][] players = encode(store.playerCount(), store::playerName);
+        byte[][] teams = encode(store.teamCount(), store::teamName);
+        byte[][] positions = encode(raw ? store.positionCount() : 0, store::positionName);
+
+        long length = HEADER_SIZE + tableSize(players) + tableSize(teams) + tableSize(positions);
+        length = (length + 7) & ~7L;
+        length += (long) size * 8 * (raw ? PlayerStore.STAT_COUNT : BASIC_COLUMNS);
+        length += (long) size * 4 * (raw ? 3 : 2);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot would exceed 2 GB");
+        }
+
+        Path target = pathFor(source);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                Metrics.Timer timer = Metrics.start("snapshot:write")) {
+            timer.rows(size);
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION);
+            out.putLong(signature.size).putLong(signature.modified).putLong(signature.head).putLong(signature.tail);
+            out.putInt(size).putInt(raw ? FLAG_RAW : 0);
+            out.putInt(players.length).putInt(teams.length).putInt(positions.length).putInt(0);
+            writeStrings(out, players);
+            writeStrings(out, teams);
+            writeStrings(out, positions);
+            align(out);
+
+            for (int column = 0, columns = raw ? PlayerStore.STAT_COUNT : BASIC_COLUMNS; column < columns; column++) {
+                out.asDoubleBuffer().put(store.column(column), 0, size);
+                out.position(out.position() + size * 8);
+            }
+            for (int row = 0; row < size; row++) {
+                out.putInt(store.playerIdAt(row));
+            }
+            for (int row = 0; row < size; row++) {
+                out.putInt(store.teamIdAt(row));
+            }
+            if (raw) {
+                for (int row = 0; row < size; row++) {
+                    out.putInt(store.positionIdAt(row));
+                }
+            }
+            out.force();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private interface Names {
+        String get(int id);
+    }
+
+    private static byte[][] encode(int count, Names names) {
+        byte[][] encoded = new byte[count][];
+        for (int id = 0; id < count; id++) {
+            encoded[id] = names.get(id).getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private static long tableSize(byte[][] strings) {
+        long size = 0;
+        for (byte[] s : strings) {
+            size += 4 + s.length;
+        }
+        return size;
+    }
+
+    private static void writeStrings(ByteBuffer out, byte[][] strings) {
+        for (byte[] s : strings) {
+            out.putInt(s.length).put(s);
+        }
+    }
+
+    private static String[] readStrings(ByteBuffer in, int count) {
+        String[] strings = new String[count];
+        byte[] bytes = new byte[64];
+        for (int id = 0; id < count; id++) {
+            int length = in.getInt();
+            if (length > bytes.length) bytes = new byte[Math.max(length, bytes.length * 2)];
+            in.get(bytes, 0, length);
+            strings[id] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static int[] readInts(ByteBuffer in, int size) {
+        int[] values = new int[size];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + size * 4);
+        return values;
+    }
+
+    private static void checkIds(int[] ids, int count) {
+        for (int id : ids) {
+            if (id < 0 || id >= count) {
+                throw new IllegalStateException("Dictionary id out of range: " + id);
+            }
+        }
+    }
+
+    private static void align(ByteBuffer buffer) {
+        buffer.position((buffer.position() + 7) & ~7);
+    }
+}
@@ -0,0 +1,593 @@
+package mvp;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Column-oriented player table. Each stat lives in its own double[] and
+ * player/team names are dictionary-encoded into int[] ids, so filtering,
+ * sorting and aggregation walk primitive arrays instead of boxed objects.
+ */
+class PlayerStore {
+    // Stat columns
+    static final int POINTS = 0;
+    static final int ASSISTS = 1;
+    static final int REBOUNDS = 2;
+    static final int STEALS = 3;
+    static final int BLOCKS = 4;
+    static final int MVP_SCORE = 5;
+
+    // Raw per-game inputs, present only when the source file has them
+    static final int GAMES = 6;
+    static final int FGA = 7;
+    static final int FTA = 8;
+    static final int TOV = 9;
+    static final int STAT_COUNT = 10;
+
+    // Sort-only pseudo column (orders by player name)
+    static final int PLAYER_NAME = 10;
+
+    private int size;
+    private double[] points, assists, rebounds, steals, blocks, mvpScore;
+    private int[] playerIds, teamIds;
+
+    // Allocated by the first setRawStats call
+    private double[] games, fga, fta, tov;
+    private int[] positionIds;
+
+    private final Dictionary players;
+    private final Dictionary teams;
+    private final Dictionary positions;
+    private final boolean readOnly;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    // Unique per instance: every snapshot or rescored copy is a new version
+    private final long version = VERSIONS.incrementAndGet();
+
+    // Lazily computed rank of each player id in name order
+    private volatile int[] nameRanks;
+
+    PlayerStore() {
+        this(1024);
+    }
+
+    PlayerStore(int capacity) {
+        this(Math.max(capacity, 16), new Dictionary(), new Dictionary(), new Dictionary());
+    }
+
+    private PlayerStore(int capacity, Dictionary players, Dictionary teams, Dictionary positions) {
+        points = new double[capacity];
+        assists = new double[capacity];
+        rebounds = new double[capacity];
+        steals = new double[capacity];
+        blocks = new double[capacity];
+        mvpScore = new double[capacity];
+        playerIds = new int[capacity];
+        teamIds = new int[capacity];
+        this.players = players;
+        this.teams = teams;
+        this.positions = positions;
+        readOnly = false;
+    }
+
+    // Read-only view sharing the source's arrays; see snapshot()
+    private PlayerStore(PlayerStore source) {
+        size = source.size;
+        points = source.points;
+        assists = source.assists;
+        rebounds = source.rebounds;
+        steals = source.steals;
+        blocks = source.blocks;
+        mvpScore = source.mvpScore;
+        playerIds = source.playerIds;
+        teamIds = source.teamIds;
+        games = source.games;
+        fga = source.fga;
+        fta = source.fta;
+        tov = source.tov;
+        positionIds = source.positionIds;
+        players = source.players.frozen();
+        teams = source.teams.frozen();
+        positions = source.positions.frozen();
+        nameRanks = source.readOnly ? source.nameRanks : null;
+        readOnly = true;
+    }
+
+    // Read-only store over fully built columns; see fromColumns()
+    private PlayerStore(int size, double[][] stats, int[] playerIds, int[] teamIds, int[] positionIds,
+            String[] players, String[] teams, String[] positions) {
+        this.size = size;
+        points = stats[POINTS];
+        assists = stats[ASSISTS];
+        rebounds = stats[REBOUNDS];
+        steals = stats[STEALS];
+        blocks = stats[BLOCKS];
+        mvpScore = stats[MVP_SCORE];
+        games = stats[GAMES];
+        fga = stats[FGA];
+        fta = stats[FTA];
+        tov = stats[TOV];
+        this.playerIds = playerIds;
+        this.teamIds = teamIds;
+        this.positionIds = positionIds;
+        this.players = Dictionary.of(players);
+        this.teams = Dictionary.of(teams);
+        this.positions = Dictionary.of(positions);
+        readOnly = true;
+    }
+
+    /**
+     * Read-only store over existing columns, e.g. read back from a snapshot
+     * file. stats is indexed by column constant; the raw columns (GAMES to
+     * TOV) and positionIds are either all present or all null.
+     */
+    static PlayerStore fromColumns(int size, double[][] stats, int[] playerIds, int[] teamIds,
+            int[] positionIds, String[] players, String[] teams, String[] positions) {
+        if (stats.length != STAT_COUNT) {
+            throw new IllegalArgumentException("Expected " + STAT_COUNT + " columns, got " + stats.length);
+        }
+        return new PlayerStore(size, stats, playerIds, teamIds, positionIds, players, teams, positions);
+    }
+
+    /**
+     * Read-only view of the rows added so far. Appends only ever write past
+     * the snapshot's size (or into freshly grown arrays), so the snapshot can
+     * be handed to another thread while this store keeps loading.
+     */
+    PlayerStore snapshot() {
+        return new PlayerStore(this);
+    }
+
+    /**
+     * Writable copy of this store with room for at least extra more rows.
+     * Dictionary ids are preserved, so rows keep their player and team ids.
+     */
+    PlayerStore appendable(int extra) {
+        PlayerStore copy = new PlayerStore(16, players.copy(), teams.copy(), positions.copy());
+        int capacity = Math.max(size + extra, 16);
+        copy.size = size;
+        copy.points = Arrays.copyOf(points, capacity);
+        copy.assists = Arrays.copyOf(assists, capacity);
+        copy.rebounds = Arrays.copyOf(rebounds, capacity);
+        copy.steals = Arrays.copyOf(steals, capacity);
+        copy.blocks = Arrays.copyOf(blocks, capacity);
+        copy.mvpScore = Arrays.copyOf(mvpScore, capacity);
+        copy.playerIds = Arrays.copyOf(playerIds, capacity);
+        copy.teamIds = Arrays.copyOf(teamIds, capacity);
+        if (games != null) {
+            copy.games = Arrays.copyOf(games, capacity);
+            copy.fga = Arrays.copyOf(fga, capacity);
+            copy.fta = Arrays.copyOf(fta, capacity);
+            copy.tov = Arrays.copyOf(tov, capacity);
+            copy.positionIds = Arrays.copyOf(positionIds, capacity);
+        }
+        return copy;
+    }
+
+    /** Read-only copy of this store with the MVP score column replaced. */
+    PlayerStore withMvpScores(double[] scores) {
+        if (scores.length < size) {
+            throw new IllegalArgumentException("Expected " + size + " scores, got " + scores.length);
+        }
+        PlayerStore copy = new PlayerStore(this);
+        copy.mvpScore = scores;
+        return copy;
+    }
+
+    /** Appends one row and returns its index. */
+    int add(String name, String team, double points, double assists,
+            double rebounds, double steals, double blocks, double mvpScore) {
+        checkWritable();
+        if (size == playerIds.length) {
+            grow();
+        }
+
+        int row = size;
+        this.points[row] = points;
+        this.assists[row] = assists;
+        this.rebounds[row] = rebounds;
+        this.steals[row] = steals;
+        this.blocks[row] = blocks;
+        this.mvpScore[row] = mvpScore;
+        playerIds[row] = players.id(name);
+        teamIds[row] = teams.id(team);
+        size++;
+        nameRanks = null;
+        return row;
+    }
+
+    /** Records the raw per-game inputs the scoring engine needs for a row. */
+    void setRawStats(int row, String position, double games, double fga, double fta, double tov) {
+        checkWritable();
+        if (this.games == null) {
+            int capacity = playerIds.length;
+            this.games = new double[capacity];
+            this.fga = new double[capacity];
+            this.fta = new double[capacity];
+            this.tov = new double[capacity];
+            positionIds = new int[capacity];
+        }
+        this.games[row] = games;
+        this.fga[row] = fga;
+        this.fta[row] = fta;
+        this.tov[row] = tov;
+        positionIds[row] = positions.id(position);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("Snapshot is read-only");
+        }
+    }
+
+    private void grow() {
+        int capacity = playerIds.length * 2;
+        points = Arrays.copyOf(points, capacity);
+        assists = Arrays.copyOf(assists, capacity);
+        rebounds = Arrays.copyOf(rebounds, capacity);
+        steals = Arrays.copyOf(steals, capacity);
+        blocks = Arrays.copyOf(blocks, capacity);
+        mvpScore = Arrays.copyOf(mvpScore, capacity);
+        playerIds = Arrays.copyOf(playerIds, capacity);
+        teamIds = Arrays.copyOf(teamIds, capacity);
+        if (games != null) {
+            games = Arrays.copyOf(games, capacity);
+            fga = Arrays.copyOf(fga, capacity);
+            fta = Arrays.copyOf(fta, capacity);
+            tov = Arrays.copyOf(tov, capacity);
+            positionIds = Arrays.copyOf(positionIds, capacity);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Identifies this store's contents for caching. Read-only stores never
+     * change, so equal versions mean equal data.
+     */
+    long version() {
+        return version;
+    }
+
+    /** True if both stores hold the same rows (possibly with different scores). */
+    boolean sameRows(PlayerStore other) {
+        return other != null && other.playerIds == playerIds && other.size == size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean hasRawStats() {
+        return games != null;
+    }
+
+    /** Backing array for a stat column; only the first size() entries are valid. */
+    double[] column(int column) {
+        switch (column) {
+            case POINTS: return points;
+            case ASSISTS: return assists;
+            case REBOUNDS: return rebounds;
+            case STEALS: return steals;
+            case BLOCKS: return blocks;
+            case MVP_SCORE: return mvpScore;
+            case GAMES: return rawColumn(games);
+            case FGA: return rawColumn(fga);
+            case FTA: return rawColumn(fta);
+            case TOV: return rawColumn(tov);
+            default: throw new IllegalArgumentException("Not a stat column: " + column);
+        }
+    }
+
+    private static double[] rawColumn(double[] values) {
+        if (values == null) {
+            throw new IllegalStateException("Store has no raw per-game stats");
+        }
+        return values;
+    }
+
+    double get(int column, int row) {
+        return column(column)[row];
+    }
+
+    String name(int row) {
+        return players.names[playerIds[row]];
+    }
+
+    String team(int row) {
+        return teams.names[teamIds[row]];
+    }
+
+    /** Position of a row, or "" if the store has no raw stats. */
+    String position(int row) {
+        return positionIds == null ? "" : positions.names[positionIds[row]];
+    }
+
+    int playerIdAt(int row) {
+        return playerIds[row];
+    }
+
+    int teamIdAt(int row) {
+        return teamIds[row];
+    }
+
+    int positionIdAt(int row) {
+        return positionIds == null ? -1 : positionIds[row];
+    }
+
+    /** Backing array of player ids; only the first size() entries are valid. */
+    int[] playerIds() {
+        return playerIds;
+    }
+
+    /** Backing array of team ids; only the first size() entries are valid. */
+    int[] teamIds() {
+        return teamIds;
+    }
+
+    /** Backing array of position ids, or null if the store has no raw stats. */
+    int[] positionIds() {
+        return positionIds;
+    }
+
+    int playerCount() {
+        return players.count;
+    }
+
+    String playerName(int id) {
+        return players.names[id];
+    }
+
+    int teamCount() {
+        return teams.count;
+    }
+
+    String teamName(int id) {
+        return teams.names[id];
+    }
+
+    int positionCount() {
+        return positions.count;
+    }
+
+    String positionName(int id) {
+        return positions.names[id];
+    }
+
+    /** Returns the id for a player name, or -1 if the player is not in the store. */
+    int findPlayer(String name) {
+        return players.find(name);
+    }
+
+    /** Returns the id for a team name, or -1 if the team is not in the store. */
+    int findTeam(String team) {
+        return teams.find(team);
+    }
+
+    /** Team names in alphabetical order. */
+    String[] sortedTeams() {
+        String[] sorted = Arrays.copyOf(teams.names, teams.count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /** Row indexes 0..size()-1 in load order. */
+    int[] allRows() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    /**
+     * The given rows (or all rows if null) whose team matches, in input
+     * order. A null team keeps every row.
+     */
+    int[] filterTeam(int[] rows, String team) {
+        if (team == null) {
+            return rows != null ? rows : allRows();
+        }
+        int teamId = findTeam(team);
+        if (teamId < 0) return new int[0];
+
+        int n = rows != null ? rows.length : size;
+        int[] kept = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int row = rows != null ? rows[i] : i;
+            if (teamIds[row] == teamId) kept[count++] = row;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Returns the given rows stably sorted by a stat column or PLAYER_NAME.
+     * Ties keep their input order in both directions.
+     */
+    int[] sort(int[] rows, int column, boolean ascending) {
+        int n = rows.length;
+        long[] keys = new long[n];
+        if (column == PLAYER_NAME) {
+            int[] ranks = nameRanks();
+            for (int i = 0; i < n; i++) {
+                keys[i] = ranks[playerIds[rows[i]]];
+            }
+        } else {
+            double[] values = column(column);
+            for (int i = 0; i < n; i++) {
+                keys[i] = sortableBits(values[rows[i]]);
+            }
+        }
+        if (!ascending) {
+            for (int i = 0; i < n; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+
+        int[] sorted = rows.clone();
+        radixSort(keys, sorted);
+        return sorted;
+    }
+
+    // Maps a double to a signed long with the same order as Double.compare
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Per-row values that sort() orders by: the stat column itself, or each
+     * row's name rank for PLAYER_NAME.
+     */
+    double[] sortKeys(int column) {
+        if (column != PLAYER_NAME) {
+            return column(column);
+        }
+        int[] ranks = nameRanks();
+        double[] keys = new double[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = ranks[playerIds[row]];
+        }
+        return keys;
+    }
+
+    /**
+     * Stable LSD radix sort of values by signed long keys, one byte per
+     * pass. Passes where every key has the same byte are skipped, which is
+     * most of them for stats in a narrow range.
+     */
+    private static void radixSort(long[] keys, int[] values) {
+        int n = keys.length;
+        long[] keyBuffer = new long[n];
+        int[] valueBuffer = new int[n];
+        int[] counts = new int[257];
+        boolean swapped = false;
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            // Flip the sign bit on the top byte so negatives sort first
+            int flip = shift == 56 ? 0x80 : 0;
+            for (int i = 0; i < n; i++) {
+                counts[((int) (keys[i] >>> shift) & 0xFF ^ flip) + 1]++;
+            }
+            boolean singleBucket = false;
+            for (int b = 1; b <= 256; b++) {
+                if (counts[b] == n) singleBucket = true;
+                counts[b] += counts[b - 1];
+            }
+            if (singleBucket) continue;
+
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(int) (keys[i] >>> shift) & 0xFF ^ flip]++;
+                keyBuffer[slot] = keys[i];
+                valueBuffer[slot] = values[i];
+            }
+            long[] k = keys;
+            keys = keyBuffer;
+            keyBuffer = k;
+            int[] v = values;
+            values = valueBuffer;
+            valueBuffer = v;
+            swapped = !swapped;
+        }
+        if (swapped) {
+            System.arraycopy(values, 0, valueBuffer, 0, n);
+        }
+    }
+
+    private int[] nameRanks() {
+        if (nameRanks == null) {
+            int playerCount = players.count;
+            String[] names = players.names;
+            Integer[] ids = new Integer[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                ids[i] = i;
+            }
+            Arrays.sort(ids, (a, b) -> names[a].compareTo(names[b]));
+
+            int[] ranks = new int[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                ranks[ids[i]] = i;
+            }
+            nameRanks = ranks;
+        }
+        return nameRanks;
+    }
+
+    double average(int column) {
+        if (size == 0) return 0;
+        double[] values = column(column);
+        double sum = 0;
+        for (int row = 0; row < size; row++) {
+            sum += values[row];
+        }
+        return sum / size;
+    }
+
+    /**
+     * String dictionary mapping names to dense ids. A frozen copy shares the
+     * names array but fixes the count, and builds its own lookup map only if
+     * someone searches it.
+     */
+    private static class Dictionary {
+        String[] names = new String[32];
+        int count;
+        volatile Map<String, Integer> lookup = new HashMap<>();
+
+        int id(String name) {
+            Integer id = lookup.get(name);
+            if (id == null) {
+                if (count == names.length) {
+                    names = Arrays.copyOf(names, count * 2);
+                }
+                id = count;
+                names[count++] = name;
+                lookup.put(name, id);
+            }
+            return id;
+        }
+
+        int find(String name) {
+            if (lookup == null) {
+                Map<String, Integer> map = new HashMap<>();
+                for (int i = 0; i < count; i++) {
+                    map.put(names[i], i);
+                }
+                lookup = map;
+            }
+            Integer id = lookup.get(name);
+            return id == null ? -1 : id;
+        }
+
+        static Dictionary of(String[] names) {
+            Dictionary dictionary = new Dictionary();
+            dictionary.names = names;
+            dictionary.count = names.length;
+            dictionary.lookup = null;
+            return dictionary;
+        }
+
+        // Writable copy with its own names array and lookup map
+        Dictionary copy() {
+            Dictionary copy = new Dictionary();
+            copy.names = Arrays.copyOf(names, Math.max(count * 2, 32));
+            copy.count = count;
+            for (int i = 0; i < count; i++) {
+                copy.lookup.put(names[i], i);
+            }
+            return copy;
+        }
+
+        Dictionary frozen() {
+            Dictionary copy = new Dictionary();
+            copy.names = names;
+            copy.count = count;
+            copy.lookup = null;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package mvp;
+
+import java.util.Arrays;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only table view over a PlayerStore. The visible rows are an int[]
+ * permutation of store rows; cells are looked up lazily in getValueAt, so
+ * refreshing the view is one array swap and one table event.
+ *
+ * Simulated MVP odds (MVPSimulator) add "Win %" and "Top 5 %" columns.
+ * They belong to the store they were simulated on and are dropped, with
+ * the columns, as soon as the table shows any other store (new scores).
+ */
+class PlayerTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {
+        "Rank", "Player", "Team", "Points", "Assists", "Rebounds", "Steals", "Blocks", "MVP Score"
+    };
+
+    private static final String[] ODDS_COLUMNS = {"Win %", "Top 5 %"};
+
+    private PlayerStore store;
+    private int[] rows = new int[0];
+    private int rowCount;
+    // Percentages by store row of oddsStore, NaN for rows not simulated; null without odds
+    private PlayerStore oddsStore;
+    private double[] winOdds;
+    private double[] podiumOdds;
+
+    /** Replaces the visible rows and fires a single data-changed event. */
+    void setRows(PlayerStore store, int[] rows) {
+        this.store = store;
+        this.rows = rows;
+        this.rowCount = rows.length;
+        if (!dropStaleOdds()) fireTableDataChanged();
+    }
+
+    /**
+     * Shows simulated odds for the current store: win and top-5
+     * probabilities (0..1) of the given store rows.
+     */
+    void setOdds(int[] rows, double[] win, double[] podium) {
+        boolean added = winOdds == null;
+        oddsStore = store;
+        winOdds = new double[store.size()];
+        podiumOdds = new double[store.size()];
+        Arrays.fill(winOdds, Double.NaN);
+        Arrays.fill(podiumOdds, Double.NaN);
+        for (int i = 0; i < rows.length; i++) {
+            winOdds[rows[i]] = 100 * win[i];
+            podiumOdds[rows[i]] = 100 * podium[i];
+        }
+        if (added) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    boolean hasOdds() {
+        return winOdds != null;
+    }
+
+    // Removes odds simulated on another store; true if the columns went away (event fired)
+    private boolean dropStaleOdds() {
+        if (winOdds == null || oddsStore == store) return false;
+        oddsStore = null;
+        winOdds = null;
+        podiumOdds = null;
+        fireTableStructureChanged();
+        return true;
+    }
+
+    /**
+     * Replaces the visible rows like setRows, but when the new view differs
+     * from the old one only by inserted rows, removed rows or changed values
+     * (rows matched by player and team, in order), fires row-level events
+     * so the table keeps its selection and scroll position.
+     */
+    void updateRows(PlayerStore store, int[] rows) {
+        PlayerStore oldStore = this.store;
+        int oldCount = rowCount;
+        int[] oldRows = this.rows;
+        this.store = store;
+        this.rows = rows;
+        this.rowCount = rows.length;
+        if (dropStaleOdds()) return;
+        if (oldStore == null) {
+            fireTableDataChanged();
+            return;
+        }
+
+        // Greedy in-order match of the shorter view against the longer one
+        boolean growing = rows.length >= oldCount;
+        int longer = growing ? rows.length : oldCount;
+        int shorter = growing ? oldCount : rows.length;
+        int[] matchedAt = new int[shorter];
+        int next = 0;
+        for (int i = 0; i < shorter; i++) {
+            int row = growing ? viewRow(oldRows, i) : rows[i];
+            PlayerStore from = growing ? oldStore : store;
+            while (next < longer && !sameKey(from, row, growing ? store : oldStore,
+                    growing ? rows[next] : viewRow(oldRows, next))) {
+                next++;
+            }
+            if (next == longer) {
+                fireTableDataChanged();
+                return;
+            }
+            matchedAt[i] = next++;
+        }
+
+        // Structural events: inserts ascending in new indexes, deletes descending in old ones
+        fireRuns(matchedAt, longer, growing);
+
+        // Value changes among the rows present in both views
+        int runStart = -1;
+        for (int i = 0; i <= shorter; i++) {
+            boolean changed = false;
+            int newIndex = -1;
+            if (i < shorter) {
+                newIndex = growing ? matchedAt[i] : i;
+                int oldIndex = growing ? i : matchedAt[i];
+                changed = newIndex != oldIndex
+                    || !sameValues(oldStore, viewRow(oldRows, oldIndex), store, rows[newIndex]);
+            }
+            if (changed && runStart < 0) {
+                runStart = newIndex;
+            } else if (!changed && runStart >= 0) {
+                int end = growing ? matchedAt[i - 1] : i - 1;
+                fireTableRowsUpdated(runStart, end);
+                runStart = -1;
+            }
+        }
+    }
+
+    private static int viewRow(int[] rows, int viewRow) {
+        return rows == null ? viewRow : rows[viewRow];
+    }
+
+    // Fires an insert (or delete) event per run of unmatched indexes in 0..length-1
+    private void fireRuns(int[] matchedAt, int length, boolean insert) {
+        int[] starts = new int[matchedAt.length + 1];
+        int[] ends = new int[matchedAt.length + 1];
+        int runs = 0;
+        int expected = 0;
+        for (int i = 0; i <= matchedAt.length; i++) {
+            int matched = i < matchedAt.length ? matchedAt[i] : length;
+            if (matched > expected) {
+                starts[runs] = expected;
+                ends[runs++] = matched - 1;
+            }
+            expected = matched + 1;
+        }
+        if (insert) {
+            for (int r = 0; r < runs; r++) {
+                fireTableRowsInserted(starts[r], ends[r]);
+            }
+        } else {
+            for (int r = runs - 1; r >= 0; r--) {
+                fireTableRowsDeleted(starts[r], ends[r]);
+            }
+        }
+    }
+
+    private static boolean sameKey(PlayerStore a, int rowA, PlayerStore b, int rowB) {
+        return a.name(rowA).equals(b.name(rowB)) && a.team(rowA).equals(b.team(rowB));
+    }
+
+    private static boolean sameValues(PlayerStore a, int rowA, PlayerStore b, int rowB) {
+        for (int column = PlayerStore.POINTS; column <= PlayerStore.MVP_SCORE; column++) {
+            if (Double.compare(a.get(column, rowA), b.get(column, rowB)) != 0) return false;
+        }
+        return true;
+    }
+
+    /** Shows every store row in load order without building a permutation. */
+    void showAll(PlayerStore store) {
+        this.store = store;
+        this.rows = null;
+        this.rowCount = store.size();
+        if (!dropStaleOdds()) fireTableDataChanged();
+    }
+
+    PlayerStore getStore() {
+        return store;
+    }
+
+    /** Store row index shown at the given view row. */
+    int storeRow(int viewRow) {
+        return rows == null ? viewRow : rows[viewRow];
+    }
+
+    /** Store rows in view order. */
+    int[] viewRows() {
+        if (store == null) return new int[0];
+        return rows == null ? store.allRows() : rows;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length + (winOdds != null ? ODDS_COLUMNS.length : 0);
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column < COLUMNS.length ? COLUMNS[column] : ODDS_COLUMNS[column - COLUMNS.length];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : column <= 2 ? String.class : Double.class;
+    }
+
+    @Override
+    public Object getValueAt(int viewRow, int column) {
+        int row = storeRow(viewRow);
+        switch (column) {
+            case 0: return viewRow + 1;
+            case 1: return store.name(row);
+            case 2: return store.team(row);
+            case 3: return store.get(PlayerStore.POINTS, row);
+            case 4: return store.get(PlayerStore.ASSISTS, row);
+            case 5: return store.get(PlayerStore.REBOUNDS, row);
+            case 6: return store.get(PlayerStore.STEALS, row);
+            case 7: return store.get(PlayerStore.BLOCKS, row);
+            case 8: return store.get(PlayerStore.MVP_SCORE, row);
+            case 9: return winOdds[row];
+            case 10: return podiumOdds[row];
+            default: throw new IndexOutOfBoundsException("column " + column);
+        }
+    }
+}
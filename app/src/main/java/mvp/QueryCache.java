@@ -0,0 +1,110 @@
+package mvp;
+
+import java.util.*;
+
+/**
+ * LRU cache of query results (store row permutations), keyed by the
+ * filter settings and the store's version. A result for one store version
+ * is never served for another, so a reload or rescore needs no explicit
+ * invalidation; clear() just frees the memory early.
+ *
+ * Bounded by entry count and by the total number of cached row indexes,
+ * since one unfiltered result holds an int per row. Cached arrays are
+ * shared with callers and must not be modified.
+ */
+class QueryCache {
+    private static final class Key {
+        final long version;
+        final String search;
+        final String team;
+        final String where;
+        final int column;
+        final boolean ascending;
+        final int limit;
+
+        Key(PlayerStore store, String search, String team, String where, int column, boolean ascending, int limit) {
+            this.version = store.version();
+            this.search = search == null ? "" : search;
+            this.team = team;
+            this.where = where == null ? "" : where;
+            this.column = column;
+            this.ascending = ascending;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return version == other.version && column == other.column && ascending == other.ascending
+                && limit == other.limit && search.equals(other.search) && Objects.equals(team, other.team)
+                && where.equals(other.where);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = Long.hashCode(version);
+            h = h * 31 + search.hashCode();
+            h = h * 31 + Objects.hashCode(team);
+            h = h * 31 + where.hashCode();
+            h = h * 31 + column;
+            h = h * 31 + (ascending ? 1 : 0);
+            return h * 31 + limit;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxRows;
+    private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedRows;
+    private long hits;
+    private long misses;
+
+    QueryCache(int maxEntries, long maxRows) {
+        this.maxEntries = maxEntries;
+        this.maxRows = maxRows;
+    }
+
+    /** The cached rows for the query, or null (counted as a miss). */
+    int[] get(PlayerStore store, String search, String team, String where, int column, boolean ascending, int limit) {
+        int[] rows = entries.get(new Key(store, search, team, where, column, ascending, limit));
+        if (rows != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return rows;
+    }
+
+    void put(PlayerStore store, String search, String team, String where, int column, boolean ascending, int limit,
+            int[] rows) {
+        if (rows.length > maxRows) return;
+        int[] previous = entries.put(new Key(store, search, team, where, column, ascending, limit), rows);
+        if (previous != null) cachedRows -= previous.length;
+        cachedRows += rows.length;
+
+        // Evict least recently used entries until both bounds hold
+        Iterator<int[]> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || cachedRows > maxRows) {
+            cachedRows -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        cachedRows = 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+}
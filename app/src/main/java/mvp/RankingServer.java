@@ -0,0 +1,390 @@
+package mvp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Headless HTTP/JSON front end to the rankings, built on the JDK's
+ * HttpServer. Queries have the same semantics as the viewer's filters
+ * (PlayerQuery) and responses use the JSON export layout.
+ *
+ * Response bodies are cached per normalized query and dataset version in
+ * an LRU bounded by total bytes, and the common ones (top N by each
+ * column, the first page of each team) are built at load time, so most
+ * requests are a map lookup and a write. Lists return DEFAULT_LIMIT rows
+ * unless asked for more (limit=0 for all); results too large to cache are
+ * streamed to the client instead of being built in memory. The file comes
+ * from DatasetRegistry, so a viewer in the same process shares its copy
+ * and both see one reload when it changes; each new version starts with
+ * an empty cache.
+ *
+ * Endpoints (GET; sort is one of mvp_score, points, assists, rebounds,
+ * steals, blocks, player; order is asc or desc, default desc):
+ *   /api/top?n=10&sort=points&order=desc
+ *   /api/search?q=jokic[&team=&sort=&order=&limit=]
+ *   /api/team?name=DEN[&sort=&order=&limit=]
+ *   /api/players?search=&team=&sort=&order=&limit=
+ *   /api/health
+ *   /api/metrics (stage timings, see Metrics)
+ *
+ * Usage: java -cp nba-mvp-ranker.jar mvp.RankingServer [data.csv] [--port 8080]
+ */
+public class RankingServer {
+    static final int DEFAULT_PORT = 8080;
+
+    /** Rows returned by the list endpoints when no limit is given. */
+    static final int DEFAULT_LIMIT = 100;
+
+    // Total size of cached bodies per dataset, and the most rows a cached body may hold
+    private static final long CACHE_BYTES = 64L << 20;
+    private static final int MAX_CACHED_ROWS = 1000;
+
+    private static final int[] PRECOMPUTED_LIMITS = {10, 25, 50, 100};
+
+    // A published version of the data file with this server's response cache for it
+    private static class Served {
+        final DatasetRegistry.Dataset dataset;
+        final ResponseCache responses = new ResponseCache(CACHE_BYTES);
+
+        Served(DatasetRegistry.Dataset dataset) {
+            this.dataset = dataset;
+        }
+    }
+
+    // A request's query after defaults are applied; equal queries share a cache entry
+    private static class Query {
+        final String search;
+        final String team;
+        final int column;
+        final boolean ascending;
+        final int limit;
+
+        Query(String search, String team, int column, boolean ascending, int limit) {
+            this.search = search == null ? "" : search;
+            this.team = team == null || team.isEmpty() || "All Teams".equals(team) ? null : team;
+            this.column = column;
+            this.ascending = ascending;
+            this.limit = Math.max(limit, 0);
+        }
+
+        String key() {
+            return search + '\u0000' + (team == null ? "" : team) + '\u0000' + column + '\u0000'
+                + (ascending ? 'a' : 'd') + limit;
+        }
+    }
+
+    // LRU of response bodies, bounded by their total size as QueryCache is by rows
+    private static final class ResponseCache {
+        private final long maxBytes;
+        private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long cachedBytes;
+
+        ResponseCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized byte[] get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, byte[] body) {
+            if (body.length > maxBytes) return;
+            byte[] previous = entries.put(key, body);
+            if (previous != null) cachedBytes -= previous.length;
+            cachedBytes += body.length;
+
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (cachedBytes > maxBytes) {
+                cachedBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return cachedBytes;
+        }
+    }
+
+    private static class BadRequest extends Exception {
+        BadRequest(String message) {
+            super(message);
+        }
+    }
+
+    private final Path file;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DatasetRegistry.Listener listener = this::published;
+    private volatile Served served;
+
+    RankingServer(Path file, InetSocketAddress address) throws IOException {
+        this.file = file;
+        executor = newExecutor();
+        DatasetRegistry.open(file, listener);
+        try {
+            serve(DatasetRegistry.get(file, null));
+        } catch (IOException | RuntimeException e) {
+            DatasetRegistry.close(file, listener);
+            executor.shutdownNow();
+            throw e;
+        } catch (InterruptedException e) {
+            DatasetRegistry.close(file, listener);
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted loading " + file);
+        }
+
+        // Headers and body go out as separate writes; without TCP_NODELAY each
+        // response waits ~40 ms for the client's delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException | RuntimeException e) {
+            DatasetRegistry.close(file, listener);
+            executor.shutdownNow();
+            throw e;
+        }
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        DatasetRegistry.close(file, listener);
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    // Virtual threads when the JDK has them (21+), otherwise a fixed pool
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        }
+    }
+
+    // Registry listener: builds the new version's cache on the server's threads, not the loading one
+    private void published(DatasetRegistry.Dataset dataset) {
+        try {
+            executor.execute(() -> serve(dataset));
+        } catch (RejectedExecutionException e) {
+            // Stopped
+        }
+    }
+
+    // Initial load and reloads: serves the version unless a newer one already is
+    private synchronized void serve(DatasetRegistry.Dataset dataset) {
+        if (served == null || dataset.version > served.dataset.version) {
+            served = prepare(new Served(dataset));
+        }
+    }
+
+    // Fills the cache with the responses most clients ask for
+    private static Served prepare(Served data) {
+        for (String sort : PlayerQuery.SORT_NAMES) {
+            int column = PlayerQuery.columnForName(sort);
+            for (int limit : PRECOMPUTED_LIMITS) {
+                cache(data, new Query(null, null, column, false, limit));
+            }
+        }
+        for (String team : data.dataset.store.sortedTeams()) {
+            cache(data, new Query(null, team, PlayerStore.MVP_SCORE, false, DEFAULT_LIMIT));
+        }
+        return data;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Metrics.Timer timer = Metrics.start("http");
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            Served data = served;
+            Map<String, String> params = parameters(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            Query query;
+            switch (path) {
+                case "/api/metrics":
+                    send(exchange, 200, Metrics.toJson().getBytes(StandardCharsets.UTF_8));
+                    return;
+                case "/api/health":
+                    send(exchange, 200, ("{\"players\": " + data.dataset.store.size() + ", \"version\": " + data.dataset.version
+                        + ", \"cached\": " + data.responses.size() + ", \"cached_bytes\": " + data.responses.bytes()
+                        + "}").getBytes(StandardCharsets.UTF_8));
+                    return;
+                case "/api/top":
+                    query = query(params, null, null, "n", 10);
+                    if (query.limit == 0) throw new BadRequest("n must be positive");
+                    break;
+                case "/api/search":
+                    query = query(params, required(params, "q"), params.get("team"), "limit", DEFAULT_LIMIT);
+                    break;
+                case "/api/team":
+                    query = query(params, params.get("search"), required(params, "name"), "limit", DEFAULT_LIMIT);
+                    break;
+                case "/api/players":
+                    query = query(params, params.get("search"), params.get("team"), "limit", DEFAULT_LIMIT);
+                    break;
+                default:
+                    send(exchange, 404, error("Unknown endpoint: " + path));
+                    return;
+            }
+
+            byte[] body = data.responses.get(query.key());
+            if (body == null) {
+                int[] rows = rows(data, query);
+                if (rows.length > MAX_CACHED_ROWS) {
+                    stream(exchange, data.dataset.store, rows);
+                    return;
+                }
+                body = serialize(data, query, rows);
+            }
+            send(exchange, 200, body);
+        } catch (BadRequest e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            Metrics.error("Error handling " + exchange.getRequestURI(), e);
+            if (exchange.getResponseCode() >= 0) {
+                // A streamed 200 is already under way; closing it would end the chunked body as if it
+                // were complete, so let HttpServer drop the connection and the client see it cut short
+                throw e;
+            }
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            timer.close();
+        }
+    }
+
+    private static Query query(Map<String, String> params, String search, String team, String limitName,
+            int defaultLimit) throws BadRequest {
+        String sort = params.getOrDefault("sort", "mvp_score");
+        int column = PlayerQuery.columnForName(sort);
+        if (column < 0) throw new BadRequest("Unknown sort: " + sort);
+
+        String order = params.getOrDefault("order", "desc");
+        if (!order.equals("asc") && !order.equals("desc")) throw new BadRequest("order must be asc or desc");
+
+        int limit = defaultLimit;
+        String value = params.get(limitName);
+        if (value != null) {
+            try {
+                limit = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new BadRequest(limitName + " must be a number");
+            }
+            if (limit < 0) throw new BadRequest(limitName + " must not be negative");
+        }
+        return new Query(search, team, column, order.equals("asc"), limit);
+    }
+
+    private static String required(Map<String, String> params, String name) throws BadRequest {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new BadRequest("Missing parameter: " + name);
+        return value;
+    }
+
+    private static int[] rows(Served data, Query query) {
+        DatasetRegistry.Dataset dataset = data.dataset;
+        return PlayerQuery.run(dataset.store, dataset.names, dataset.sorted,
+            query.search, query.team, query.column, query.ascending, query.limit);
+    }
+
+    // Builds the response body for the rows and caches it
+    private static byte[] serialize(Served data, Query query, int[] rows) {
+        byte[] body;
+        try (Metrics.Timer timer = Metrics.start("serialize")) {
+            timer.rows(rows.length);
+            body = PlayerExporter.toJson(data.dataset.store, rows);
+        }
+        data.responses.put(query.key(), body);
+        return body;
+    }
+
+    private static void cache(Served data, Query query) {
+        if (data.responses.get(query.key()) == null) {
+            serialize(data, query, rows(data, query));
+        }
+    }
+
+    // Writes a large result as it is serialized, chunked, without holding the body. The body is
+    // closed, ending the chunked stream, only once complete; on failure handle drops the connection
+    private static void stream(HttpExchange exchange, PlayerStore store, int[] rows) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        try (Metrics.Timer timer = Metrics.start("serialize")) {
+            timer.rows(rows.length);
+            PlayerExporter.writeJson(store, rows, out);
+        }
+        out.close();
+    }
+
+    private static Map<String, String> parameters(String rawQuery) throws BadRequest {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+                params.put(name, value);
+            }
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            throw new BadRequest("Malformed query string");
+        }
+        return params;
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"error\": " + new String(PlayerExporter.jsonString(message), StandardCharsets.UTF_8) + "}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get("mvp_candidates.csv");
+        int port = DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port")) {
+                port = Integer.parseInt(args[++i]);
+            } else {
+                file = Paths.get(args[i]);
+            }
+        }
+
+        RankingServer server = new RankingServer(file, new InetSocketAddress(port));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Serving " + server.served.dataset.store.size() + " players from " + file
+            + " at http://localhost:" + server.port() + "/api/top");
+    }
+}
@@ -0,0 +1,214 @@
+package mvp;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Player stats across seasons, one partition per season file
+ * (NBA_<year>_per_game.csv) in a directory.
+ *
+ * A partition is a PlayerStore loaded on first use, through its binary
+ * snapshot, and kept in a small LRU; memory follows the seasons in use,
+ * not the whole history. Per-player queries read the partitions in
+ * parallel, a few at a time and without caching them, and merge one line
+ * per season.
+ */
+class SeasonStore {
+    private static final Pattern SEASON_FILE = Pattern.compile("NBA_(\\d{4})_per_game\\.csv");
+
+    // Partitions kept in memory at once, and read at once by a history query
+    private static final int MAX_LOADED = 8;
+
+    // Basketball-Reference's team for a traded player's combined line: TOT, or 2TM, 3TM, ... since 2024
+    private static final Pattern COMBINED_TEAM = Pattern.compile("TOT|\\dTM");
+
+    /** One player's line for one season. */
+    static class SeasonLine {
+        final int season;
+        final String team;
+        final double[] stats = new double[PlayerStore.MVP_SCORE + 1];
+        // 1-based MVP score rank within the season, and the season's player count
+        final int rank;
+        final int players;
+
+        SeasonLine(int season, PlayerStore store, int row, int rank, int players) {
+            this.season = season;
+            this.team = store.team(row);
+            for (int column = PlayerStore.POINTS; column <= PlayerStore.MVP_SCORE; column++) {
+                stats[column] = store.get(column, row);
+            }
+            this.rank = rank;
+            this.players = players;
+        }
+    }
+
+    private final int[] seasons;
+    private final Path[] files;
+    private final Object[] locks;
+    private final LinkedHashMap<Integer, PlayerStore> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Finds the season files in a directory; there may be none. */
+    SeasonStore(Path directory) throws IOException {
+        TreeMap<Integer, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "NBA_*_per_game.csv")) {
+            for (Path entry : entries) {
+                int season = season(entry);
+                if (season > 0) found.put(season, entry);
+            }
+        }
+        seasons = new int[found.size()];
+        files = new Path[found.size()];
+        locks = new Object[found.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Path> entry : found.entrySet()) {
+            seasons[i] = entry.getKey();
+            files[i] = entry.getValue();
+            locks[i++] = new Object();
+        }
+    }
+
+    /** The season year in a season file's name, or -1 if it is not one. */
+    static int season(Path file) {
+        Matcher matcher = SEASON_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /** Season years with a file, ascending. */
+    int[] seasons() {
+        return seasons.clone();
+    }
+
+    /** The season's rows, loading the partition if it is not in memory. */
+    PlayerStore season(int season) throws IOException {
+        int index = Arrays.binarySearch(seasons, season);
+        if (index < 0) {
+            throw new IllegalArgumentException("No file for season " + season);
+        }
+        // One lock per season: concurrent callers wait for a single load
+        synchronized (locks[index]) {
+            PlayerStore store;
+            synchronized (loaded) {
+                store = loaded.get(season);
+            }
+            if (store == null) {
+                Path file = files[index];
+                store = PlayerSnapshot.load(file, PlayerSnapshot.Signature.of(file), null);
+                synchronized (loaded) {
+                    loaded.put(season, store);
+                    Iterator<Integer> eldest = loaded.keySet().iterator();
+                    while (loaded.size() > MAX_LOADED) {
+                        eldest.next();
+                        eldest.remove();
+                    }
+                }
+            }
+            return store;
+        }
+    }
+
+    /**
+     * The season's rows without adding them to the LRU: for a single pass
+     * over many seasons, which would otherwise evict the ones in use. The
+     * caller should drop the store when done with it.
+     */
+    PlayerStore read(int season) throws IOException {
+        int index = Arrays.binarySearch(seasons, season);
+        if (index < 0) {
+            throw new IllegalArgumentException("No file for season " + season);
+        }
+        synchronized (loaded) {
+            PlayerStore store = loaded.get(season);
+            if (store != null) return store;
+        }
+        Path file = files[index];
+        return PlayerSnapshot.load(file, PlayerSnapshot.Signature.of(file), null);
+    }
+
+    /**
+     * The player's line in every season from first to last (inclusive) in
+     * which they appear, ascending; see playerLines for traded players.
+     * Seasons are read MAX_LOADED at a time, so memory stays bounded
+     * however long the range, and the LRU is left to the seasons in use.
+     */
+    List<SeasonLine> history(String player, int first, int last) throws IOException {
+        int[] years = Arrays.stream(seasons).filter(s -> s >= first && s <= last).toArray();
+        SeasonLine[] lines = new SeasonLine[years.length];
+        try {
+            for (int from = 0; from < years.length; from += MAX_LOADED) {
+                IntStream.range(from, Math.min(from + MAX_LOADED, years.length)).parallel()
+                    .forEach(i -> lines[i] = line(years[i], player));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return Arrays.stream(lines).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private SeasonLine line(int season, String player) {
+        PlayerStore store;
+        try {
+            store = read(season);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int id = store.findPlayer(player);
+        if (id < 0) return null;
+        // Ranked against one line per player, so a traded player's team rows do not count twice
+        int[] lines = playerLines(store);
+        if (lines[id] < 0) return null;
+        double[] scores = store.column(PlayerStore.MVP_SCORE);
+        double score = scores[lines[id]];
+        int rank = 1;
+        int players = 0;
+        for (int row : lines) {
+            if (row < 0) continue;
+            players++;
+            if (scores[row] > score) rank++;
+        }
+        return new SeasonLine(season, store, lines[id], rank, players);
+    }
+
+    /**
+     * One row per player id (-1 for ids without rows). A player traded
+     * mid-season has a row per team plus a combined one; the combined line
+     * (team TOT, 2TM, 3TM, ...) is used, or failing that the row with the
+     * most games, or the first row when the file has no games column.
+     */
+    static int[] playerLines(PlayerStore store) {
+        boolean[] combined = new boolean[store.teamCount()];
+        for (int team = 0; team < combined.length; team++) {
+            combined[team] = COMBINED_TEAM.matcher(store.teamName(team)).matches();
+        }
+        double[] games = store.hasRawStats() ? store.column(PlayerStore.GAMES) : null;
+        int[] lines = new int[store.playerCount()];
+        Arrays.fill(lines, -1);
+        for (int row = 0, n = store.size(); row < n; row++) {
+            int id = store.playerIdAt(row);
+            int best = lines[id];
+            if (best < 0) {
+                lines[id] = row;
+            } else if (!combined[store.teamIdAt(best)] && (combined[store.teamIdAt(row)]
+                    || games != null && games[row] > games[best])) {
+                lines[id] = row;
+            }
+        }
+        return lines;
+    }
+
+    /** Trailing mean over the last window values (fewer at the start). */
+    static double[] rolling(double[] values, int window) {
+        double[] means = new double[values.length];
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+            if (i >= window) sum -= values[i - window];
+            means[i] = sum / Math.min(i + 1, window);
+        }
+        return means;
+    }
+}
@@ -0,0 +1,268 @@
+package mvp;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Nearest-neighbour search over player-seasons by stat profile.
+ *
+ * Each entry is a vector of PTS, AST, TRB, STL, BLK and, when every source
+ * has raw per-game columns, TS% and AST/TO (defined as in MVPScorer). Each
+ * feature is z-scored over the whole index, and entries are compared by
+ * Euclidean distance. A player traded mid-season is indexed once, by the
+ * combined line, as in SeasonStore.playerLines.
+ *
+ * Features are stored column-wise as floats and a query is a flat scan:
+ * rows are processed in blocks, one feature at a time, so the inner loops
+ * are simple array arithmetic the JIT vectorizes, and each chunk of rows
+ * keeps its own TopK before the chunks are merged. A KD-tree gains little
+ * in seven dimensions with this much overlap between players.
+ *
+ * Each source is copied into a Source holding only what the index needs,
+ * so the seasons' stores can be dropped once it is built.
+ */
+class SimilarityIndex {
+    static final String[] FEATURES = {"PTS", "AST", "TRB", "STL", "BLK", "TS%", "AST/TO"};
+
+    // Rows per block of distances; small enough to stay in L1
+    private static final int BLOCK = 1024;
+
+    /** One entry near the query: its source label, display values and distance. */
+    static final class Match {
+        final String label;
+        final String player;
+        final String team;
+        final double mvpScore;
+        // Raw feature values, dimensions() of FEATURES
+        final double[] features;
+        final double distance;
+
+        Match(String label, String player, String team, double mvpScore, double[] features, double distance) {
+            this.label = label;
+            this.player = player;
+            this.team = team;
+            this.mvpScore = mvpScore;
+            this.features = features;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * One source's entries, copied out of its store so the store need not
+     * stay in memory: raw feature values plus the name, team and MVP score
+     * shown in results. Sources are immutable and can be shared between
+     * indexes.
+     */
+    static final class Source {
+        final String label;
+        final int size;
+        final boolean raw;
+        final String[] players;
+        final String[] teams;
+        final double[] scores;
+        // [feature][entry], raw values; TS% and AST/TO only if raw
+        final float[][] features;
+
+        Source(String label, PlayerStore store) {
+            this.label = label;
+            raw = store.hasRawStats();
+            int[] rows = indexedRows(store);
+            size = rows.length;
+            players = new String[size];
+            teams = new String[size];
+            scores = new double[size];
+            features = new float[raw ? FEATURES.length : FEATURES.length - 2][size];
+            double[] vector = new double[FEATURES.length];
+            for (int e = 0; e < size; e++) {
+                int row = rows[e];
+                players[e] = store.name(row);
+                teams[e] = store.team(row);
+                scores[e] = store.get(PlayerStore.MVP_SCORE, row);
+                vector(store, row, raw, vector);
+                for (int f = 0; f < features.length; f++) {
+                    features[f][e] = (float) vector[f];
+                }
+            }
+        }
+    }
+
+    private final Source[] sources;
+    private final int[] sourceStart;
+    private final int dimensions;
+    private final int size;
+    // [feature][entry] over all sources in order, z-scored
+    private final float[][] features;
+    private final double[] mean;
+    private final double[] scale;
+
+    /** Indexes the sources; the first is the one queries come from. */
+    SimilarityIndex(List<Source> sources) {
+        this.sources = sources.toArray(new Source[0]);
+        boolean raw = !sources.isEmpty();
+        int total = 0;
+        sourceStart = new int[this.sources.length + 1];
+        for (int s = 0; s < this.sources.length; s++) {
+            raw &= this.sources[s].raw;
+            sourceStart[s] = total;
+            total += this.sources[s].size;
+        }
+        sourceStart[this.sources.length] = total;
+        // Only the shared stats are compared when some files lack raw columns
+        dimensions = raw ? FEATURES.length : FEATURES.length - 2;
+        size = total;
+
+        features = new float[dimensions][];
+        mean = new double[dimensions];
+        scale = new double[dimensions];
+        IntStream.range(0, dimensions).parallel().forEach(f -> {
+            float[] column = new float[size];
+            for (int s = 0; s < this.sources.length; s++) {
+                Source source = this.sources[s];
+                System.arraycopy(source.features[f], 0, column, sourceStart[s], source.size);
+            }
+            double sum = 0;
+            for (float x : column) sum += x;
+            double m = size == 0 ? 0 : sum / size;
+            double squares = 0;
+            for (float x : column) squares += (x - m) * (x - m);
+            double sd = size < 2 ? 0 : Math.sqrt(squares / (size - 1));
+            mean[f] = m;
+            scale[f] = sd > 0 ? 1 / sd : 1;
+            for (int e = 0; e < size; e++) {
+                column[e] = (float) ((column[e] - m) * scale[f]);
+            }
+            features[f] = column;
+        });
+    }
+
+    /**
+     * This index with its first source replaced, e.g. after the current
+     * file reloads. The other sources are reused as they are; only the
+     * normalization is recomputed.
+     */
+    SimilarityIndex withFirst(Source first) {
+        List<Source> replaced = new ArrayList<>(Arrays.asList(sources));
+        replaced.set(0, first);
+        return new SimilarityIndex(replaced);
+    }
+
+    private static int[] indexedRows(PlayerStore store) {
+        return Arrays.stream(SeasonStore.playerLines(store)).filter(row -> row >= 0).sorted().toArray();
+    }
+
+    // Raw feature values of the row: the five box-score stats, then TS% and AST/TO if raw
+    private static void vector(PlayerStore store, int row, boolean raw, double[] out) {
+        double points = store.get(PlayerStore.POINTS, row);
+        double assists = store.get(PlayerStore.ASSISTS, row);
+        out[0] = points;
+        out[1] = assists;
+        out[2] = store.get(PlayerStore.REBOUNDS, row);
+        out[3] = store.get(PlayerStore.STEALS, row);
+        out[4] = store.get(PlayerStore.BLOCKS, row);
+        if (raw) {
+            double attempts = 2 * (store.get(PlayerStore.FGA, row) + 0.44 * store.get(PlayerStore.FTA, row));
+            out[5] = attempts > 0 ? points / attempts : 0;
+            out[6] = assists / (store.get(PlayerStore.TOV, row) + 1);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Number of features compared: 7, or 5 if some source lacks raw per-game columns. */
+    int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * The k entries closest to the row's stat profile, nearest first. The
+     * row is from the store the first source was built from; the player's
+     * own entries there (any of their rows, including a traded player's
+     * combined line) are left out.
+     */
+    List<Match> nearest(PlayerStore store, int row, int k) {
+        if (sources.length == 0) return new ArrayList<>();
+        double[] raw = new double[FEATURES.length];
+        vector(store, row, dimensions > 5, raw);
+        float[] query = new float[dimensions];
+        for (int f = 0; f < dimensions; f++) {
+            query[f] = (float) ((raw[f] - mean[f]) * scale[f]);
+        }
+
+        // Extra room for the player's own entries in the first source
+        String player = store.name(row);
+        int own = 0;
+        for (int e = 0; e < sources[0].size; e++) {
+            if (sources[0].players[e].equals(player)) own++;
+        }
+        int keep = k + own;
+        int chunks = MVPScorer.chunkCount(size);
+        TopK[] tops = new TopK[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+            tops[c] = scan(query, MVPScorer.start(c, size, chunks), MVPScorer.start(c + 1, size, chunks), keep));
+
+        TopK merged = new TopK(keep, true);
+        for (TopK top : tops) {
+            for (int entry : top.toSortedRows()) {
+                merged.offer(entry, distance(query, entry));
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(k);
+        for (int entry : merged.toSortedRows()) {
+            int s = source(entry);
+            int e = entry - sourceStart[s];
+            Source source = sources[s];
+            if (s == 0 && source.players[e].equals(player)) continue;
+            if (matches.size() == k) break;
+            double[] values = new double[dimensions];
+            for (int f = 0; f < dimensions; f++) {
+                values[f] = source.features[f][e];
+            }
+            matches.add(new Match(source.label, source.players[e], source.teams[e], source.scores[e], values,
+                Math.sqrt(distance(query, entry))));
+        }
+        return matches;
+    }
+
+    // Index of the source holding an entry
+    private int source(int entry) {
+        int s = Arrays.binarySearch(sourceStart, entry);
+        if (s < 0) return -s - 2;
+        // Skip empty sources that start at the same entry
+        while (sourceStart[s + 1] == entry) s++;
+        return s;
+    }
+
+    private TopK scan(float[] query, int from, int to, int keep) {
+        TopK top = new TopK(keep, true);
+        float[] distances = new float[BLOCK];
+        for (int start = from; start < to; start += BLOCK) {
+            int length = Math.min(BLOCK, to - start);
+            Arrays.fill(distances, 0, length, 0f);
+            for (int f = 0; f < dimensions; f++) {
+                float[] column = features[f];
+                float q = query[f];
+                for (int i = 0; i < length; i++) {
+                    float d = column[start + i] - q;
+                    distances[i] += d * d;
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                top.offer(start + i, distances[i]);
+            }
+        }
+        return top;
+    }
+
+    // Squared distance, summed in the same order as scan so merged keys match
+    private float distance(float[] query, int entry) {
+        float sum = 0;
+        for (int f = 0; f < dimensions; f++) {
+            float d = features[f][entry] - query[f];
+            sum += d * d;
+        }
+        return sum;
+    }
+}
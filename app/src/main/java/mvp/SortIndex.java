@@ -0,0 +1,128 @@
+package mvp;
+
+import java.util.*;
+
+/**
+ * Every sortable column of a PlayerStore pre-sorted once per load.
+ *
+ * Each column keeps its rows in ascending order (ties in load order), built
+ * in parallel across columns. A filtered, sorted view is then one pass over
+ * that order keeping the rows set in a bitset; descending order walks the
+ * same array backwards, re-reversing runs of equal keys so ties still come
+ * out in load order exactly as the stable sort would produce them.
+ */
+class SortIndex {
+    private static final int[] SORT_COLUMNS = {
+        PlayerStore.MVP_SCORE, PlayerStore.POINTS, PlayerStore.ASSISTS, PlayerStore.REBOUNDS,
+        PlayerStore.STEALS, PlayerStore.BLOCKS, PlayerStore.PLAYER_NAME
+    };
+
+    private final PlayerStore store;
+    private final int[][] ascending = new int[PlayerStore.PLAYER_NAME + 1][];
+    private final double[][] keys = new double[PlayerStore.PLAYER_NAME + 1][];
+
+    SortIndex(PlayerStore store) {
+        this.store = store;
+        // Name ranks are computed lazily; do it before going parallel
+        keys[PlayerStore.PLAYER_NAME] = store.sortKeys(PlayerStore.PLAYER_NAME);
+        Arrays.stream(SORT_COLUMNS).parallel().forEach(column -> {
+            if (column != PlayerStore.PLAYER_NAME) {
+                keys[column] = store.sortKeys(column);
+            }
+            ascending[column] = store.sort(store.allRows(), column, true);
+        });
+    }
+
+    // Copy of source with only the MVP score order rebuilt; see rescored()
+    private SortIndex(SortIndex source, PlayerStore store) {
+        this.store = store;
+        for (int column : SORT_COLUMNS) {
+            ascending[column] = source.ascending[column];
+            keys[column] = source.keys[column];
+        }
+
+        keys[PlayerStore.MVP_SCORE] = store.sortKeys(PlayerStore.MVP_SCORE);
+        ascending[PlayerStore.MVP_SCORE] = store.sort(store.allRows(), PlayerStore.MVP_SCORE, true);
+    }
+
+    /**
+     * Index for a store with the same rows but new MVP scores (see
+     * PlayerStore.withMvpScores); only that one column is re-sorted.
+     */
+    SortIndex rescored(PlayerStore store) {
+        if (!this.store.sameRows(store)) {
+            throw new IllegalArgumentException("Store has different rows");
+        }
+        return new SortIndex(this, store);
+    }
+
+    /** True if this index has an up-to-date order for the column of the given store. */
+    boolean covers(PlayerStore store, int column) {
+        return this.store.sameRows(store) && ascending[column] != null
+            && (column == PlayerStore.PLAYER_NAME || this.store.column(column) == store.column(column));
+    }
+
+    /** All rows ascending by the column, ties in load order. Shared; do not modify. */
+    int[] ascendingOrder(int column) {
+        return ascending[column];
+    }
+
+    /**
+     * Returns the given rows (or all rows if null) of this index's store
+     * ordered by the column, with the same result as PlayerStore.sort.
+     */
+    int[] select(int column, boolean ascendingOrder, int[] rows) {
+        return select(column, ascendingOrder, rows, Integer.MAX_VALUE);
+    }
+
+    /** Like select, but stops after the first limit rows. */
+    int[] select(int column, boolean ascendingOrder, int[] rows, int limit) {
+        int n = store.size();
+        int count = Math.min(rows != null ? rows.length : n, limit);
+
+        // A small filtered set is cheaper to sort than to scan the full order
+        if (rows != null && rows.length < n >>> 5) {
+            int[] sorted = store.sort(rows, column, ascendingOrder);
+            return count < sorted.length ? Arrays.copyOf(sorted, count) : sorted;
+        }
+
+        long[] bits = null;
+        if (rows != null) {
+            bits = new long[(n + 63) >>> 6];
+            for (int row : rows) {
+                bits[row >>> 6] |= 1L << row;
+            }
+        }
+
+        int[] order = ascending[column];
+        int[] result = new int[count];
+        int k = 0;
+        if (ascendingOrder) {
+            for (int i = 0; i < n && k < count; i++) {
+                int row = order[i];
+                if (bits == null || (bits[row >>> 6] & (1L << row)) != 0) {
+                    result[k++] = row;
+                }
+            }
+        } else {
+            double[] columnKeys = keys[column];
+            int i = n - 1;
+            while (i >= 0 && k < count) {
+                // Find the run of equal keys ending at i and emit it forwards
+                double key = columnKeys[order[i]];
+                int start = i;
+                while (start > 0 && Double.compare(columnKeys[order[start - 1]], key) == 0) {
+                    start--;
+                }
+                for (int j = start; j <= i && k < count; j++) {
+                    int row = order[j];
+                    if (bits == null || (bits[row >>> 6] & (1L << row)) != 0) {
+                        result[k++] = row;
+                    }
+                }
+                i = start - 1;
+            }
+        }
+        return k < count ? Arrays.copyOf(result, k) : result;
+    }
+}
@@ -0,0 +1,110 @@
+package mvp;
+
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Cell renderer for the player tables: striped rows and right-aligned
+ * numbers, with doubles shown like "#.##" (always with a '.' separator, as
+ * in the exports) and NaN left blank.
+ *
+ * Painting is the hot path when scrolling a large table, so the colors are
+ * shared constants, UI defaults are not looked up per cell, and formatted
+ * doubles come from a small direct-mapped cache keyed by the value's bits;
+ * per-game stats repeat a lot, so most cells are painted without formatting
+ * or allocating anything.
+ */
+class StatCellRenderer extends DefaultTableCellRenderer {
+    static final Color SELECTED_ROW = new Color(173, 216, 230);
+    static final Color EVEN_ROW = new Color(248, 249, 250);
+    static final Color ODD_ROW = Color.WHITE;
+
+    private static final int CACHE_BITS = 12;
+
+    private final long[] cachedBits = new long[1 << CACHE_BITS];
+    private final String[] cachedText = new String[1 << CACHE_BITS];
+    private final char[] digits = new char[24];
+    private Border focusBorder;
+
+    /** Installs a new renderer for every column class the player tables use. */
+    static void install(JTable table) {
+        StatCellRenderer renderer = new StatCellRenderer();
+        table.setDefaultRenderer(Object.class, renderer);
+        table.setDefaultRenderer(Integer.class, renderer);
+        table.setDefaultRenderer(Double.class, renderer);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+            boolean isSelected, boolean hasFocus, int row, int column) {
+        // What the default renderer does, minus its per-cell UI default lookups
+        setFont(table.getFont());
+        setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
+        setBorder(hasFocus ? focusBorder() : noFocusBorder);
+        setValue(value);
+        setHorizontalAlignment(value instanceof Number ? SwingConstants.RIGHT : SwingConstants.LEADING);
+        setBackground(isSelected ? SELECTED_ROW : row % 2 == 0 ? EVEN_ROW : ODD_ROW);
+        return this;
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        focusBorder = null;
+    }
+
+    private Border focusBorder() {
+        if (focusBorder == null) {
+            focusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+            if (focusBorder == null) focusBorder = noFocusBorder;
+        }
+        return focusBorder;
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        if (value instanceof Double) {
+            setText(format((Double) value));
+        } else {
+            super.setValue(value);
+        }
+    }
+
+    /** The value as the tables show it, cached by exact value. */
+    String format(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = (int) ((bits * 0x9e3779b97f4a7c15L) >>> (64 - CACHE_BITS));
+        String text = cachedText[slot];
+        if (text == null || cachedBits[slot] != bits) {
+            text = text(value);
+            cachedText[slot] = text;
+            cachedBits[slot] = bits;
+        }
+        return text;
+    }
+
+    private String text(double value) {
+        if (Double.isNaN(value)) return "";
+        if (Double.isInfinite(value)) return value > 0 ? "∞" : "-∞";
+
+        long cents = PlayerExporter.roundedCents(value);
+        if (cents == 0) return "0";
+        // Digits right to left: up to two decimals without trailing zeros, then the integer part
+        int position = digits.length;
+        int fraction = (int) (cents % 100);
+        if (fraction != 0) {
+            if (fraction % 10 != 0) digits[--position] = (char) ('0' + fraction % 10);
+            digits[--position] = (char) ('0' + fraction / 10);
+            digits[--position] = '.';
+        }
+        long whole = cents / 100;
+        do {
+            digits[--position] = (char) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole != 0);
+        if (value < 0) digits[--position] = '-';
+        return new String(digits, position, digits.length - position);
+    }
+}
@@ -0,0 +1,693 @@
+package mvp;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * A small query language over the player table:
+ *
+ *   PTS > 25 AND AST >= 7 AND Team IN (DEN, DAL) ORDER BY MVP_Score DESC LIMIT 20
+ *
+ *   query      := [[WHERE] condition] [ORDER BY field [ASC | DESC]] [LIMIT n]
+ *   condition  := term {OR term}          term := factor {AND factor}
+ *   factor     := NOT factor | ( condition ) | comparison
+ *   comparison := stat (= | != | <> | < | <= | > | >=) number
+ *               | stat [NOT] BETWEEN number AND number
+ *               | name (= | !=) value | name [NOT] IN (value, ...)
+ *               | Player [NOT] CONTAINS value
+ *
+ * Stats are PTS, AST, TRB, STL, BLK and MVP_Score, plus G, FGA, FTA and
+ * TOV for raw per-game files; names are Player, Team and Pos. Keywords,
+ * fields and values are case-insensitive; values are bare words or quoted.
+ * A stat comparison, != and NOT BETWEEN included, never matches a NaN
+ * value; only NOT applied to a condition complements it.
+ *
+ * A condition is compiled per store into filters that produce a bitset,
+ * one block of BLOCK rows at a time. A comparison fills a long word per 64
+ * rows with a branch-free loop over the primitive column (or, for names,
+ * the dictionary ids against a per-id table), and AND/OR/NOT combine
+ * words. Before scanning a block, a comparison consults the column's zone
+ * map (per-block min and max, built once per column array) and fills the
+ * block without reading it when every value is out of (or in) range; AND
+ * and OR skip their right side when the left side already decides the
+ * block. Blocks are split across cores.
+ */
+class StatQuery {
+    static final int BLOCK = 4096;
+    private static final int WORDS = BLOCK / 64;
+
+    static class ParseException extends Exception {
+        ParseException(String message) {
+            super(message);
+        }
+    }
+
+    final String text;
+    private final Condition where;
+    // Every field the query names, for check
+    private final Set<Field> fields;
+    /** ORDER BY column (stat or PLAYER_NAME), or -1 if the query has none. */
+    final int orderColumn;
+    final boolean ascending;
+    /** LIMIT (at least 1), or -1 if the query has none. */
+    final int limit;
+
+    private StatQuery(String text, Condition where, Set<Field> fields, int orderColumn, boolean ascending, int limit) {
+        this.text = text;
+        this.where = where;
+        this.fields = fields;
+        this.orderColumn = orderColumn;
+        this.ascending = ascending;
+        this.limit = limit;
+    }
+
+    static StatQuery parse(String text) throws ParseException {
+        return new Parser(text).query();
+    }
+
+    boolean hasCondition() {
+        return where != null;
+    }
+
+    /**
+     * Throws IllegalArgumentException if the query names a field the store
+     * lacks (raw stats of a score-only file), in its condition or ORDER BY.
+     */
+    void check(PlayerStore store) {
+        for (Field field : fields) {
+            field.check(store);
+        }
+    }
+
+    /**
+     * One bit per store row (bit row % 64 of word row / 64), set where the
+     * condition holds; null if there is no condition. Fields the store
+     * lacks (raw stats of a score-only file) throw IllegalArgumentException.
+     */
+    long[] matches(PlayerStore store) {
+        if (where == null) return null;
+        Filter filter = where.compile(store);
+        int n = store.size();
+        long[] bits = new long[(n + 63) >>> 6];
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        int chunks = Math.min(MVPScorer.chunkCount(n), Math.max(blocks, 1));
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            long[][] scratch = new long[filter.depth()][WORDS];
+            for (int b = MVPScorer.start(c, blocks, chunks), end = MVPScorer.start(c + 1, blocks, chunks); b < end; b++) {
+                int from = b * BLOCK;
+                filter.eval(from, Math.min(from + BLOCK, n), bits, b * WORDS, scratch, 0);
+            }
+        });
+        return bits;
+    }
+
+    /** Rows where the condition holds, ascending; all rows if there is no condition. */
+    int[] rows(PlayerStore store) {
+        long[] bits = matches(store);
+        return bits == null ? store.allRows() : rows(bits);
+    }
+
+    /** The set bits of a bitset, ascending. */
+    static int[] rows(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        int[] rows = new int[count];
+        int k = 0;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                rows[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return rows;
+    }
+
+    // ---- Compiled filters
+
+    // A parsed condition; compiled against each store it runs on
+    private interface Condition {
+        Filter compile(PlayerStore store);
+    }
+
+    private abstract static class Filter {
+        /**
+         * Writes the bits of rows from..to-1 (at most BLOCK, from a block
+         * start) to out[offset...], zero past to. Nested filters use
+         * scratch[level...] for intermediate words.
+         */
+        abstract void eval(int from, int to, long[] out, int offset, long[][] scratch, int level);
+
+        /** Scratch buffers needed by this filter and its children. */
+        int depth() {
+            return 0;
+        }
+    }
+
+    private static int words(int from, int to) {
+        return (to - from + 63) >>> 6;
+    }
+
+    // Sets rows from..to-1 (zero beyond) in out[offset...]
+    private static void fill(int from, int to, long[] out, int offset) {
+        int words = words(from, to);
+        Arrays.fill(out, offset, offset + words, -1L);
+        int tail = (to - from) & 63;
+        if (tail != 0) out[offset + words - 1] = (1L << tail) - 1;
+    }
+
+    private static final class AndFilter extends Filter {
+        private final Filter left;
+        private final Filter right;
+
+        AndFilter(Filter left, Filter right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int to, long[] out, int offset, long[][] scratch, int level) {
+            left.eval(from, to, out, offset, scratch, level + 1);
+            int words = words(from, to);
+            long any = 0;
+            for (int w = 0; w < words; w++) any |= out[offset + w];
+            if (any == 0) return;
+            long[] other = scratch[level];
+            right.eval(from, to, other, 0, scratch, level + 1);
+            for (int w = 0; w < words; w++) out[offset + w] &= other[w];
+        }
+
+        @Override
+        int depth() {
+            return 1 + Math.max(left.depth(), right.depth());
+        }
+    }
+
+    private static final class OrFilter extends Filter {
+        private final Filter left;
+        private final Filter right;
+
+        OrFilter(Filter left, Filter right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int to, long[] out, int offset, long[][] scratch, int level) {
+            left.eval(from, to, out, offset, scratch, level + 1);
+            int words = words(from, to);
+            int tail = (to - from) & 63;
+            long missing = ~out[offset + words - 1] & (tail == 0 ? -1L : (1L << tail) - 1);
+            for (int w = 0; w < words - 1; w++) missing |= ~out[offset + w];
+            if (missing == 0) return;
+            long[] other = scratch[level];
+            right.eval(from, to, other, 0, scratch, level + 1);
+            for (int w = 0; w < words; w++) out[offset + w] |= other[w];
+        }
+
+        @Override
+        int depth() {
+            return 1 + Math.max(left.depth(), right.depth());
+        }
+    }
+
+    private static final class NotFilter extends Filter {
+        private final Filter child;
+
+        NotFilter(Filter child) {
+            this.child = child;
+        }
+
+        @Override
+        void eval(int from, int to, long[] out, int offset, long[][] scratch, int level) {
+            child.eval(from, to, out, offset, scratch, level);
+            int words = words(from, to);
+            for (int w = 0; w < words; w++) out[offset + w] = ~out[offset + w];
+            int tail = (to - from) & 63;
+            if (tail != 0) out[offset + words - 1] &= (1L << tail) - 1;
+        }
+
+        @Override
+        int depth() {
+            return child.depth();
+        }
+    }
+
+    // lo <= value <= hi; NaN never matches
+    private static final class RangeFilter extends Filter {
+        private final double[] values;
+        private final double lo;
+        private final double hi;
+        private final ZoneMap zones;
+
+        RangeFilter(double[] values, int rows, double lo, double hi) {
+            this.values = values;
+            this.lo = lo;
+            this.hi = hi;
+            this.zones = ZoneMap.of(values, rows);
+        }
+
+        @Override
+        void eval(int from, int to, long[] out, int offset, long[][] scratch, int level) {
+            int block = from / BLOCK;
+            double min = zones.min[block];
+            double max = zones.max[block];
+            if (!(max >= lo && min <= hi)) { // also true for an all-NaN block
+                Arrays.fill(out, offset, offset + words(from, to), 0L);
+                return;
+            }
+            if (min >= lo && max <= hi && !zones.nan[block]) {
+                fill(from, to, out, offset);
+                return;
+            }
+            double[] values = this.values;
+            for (int base = from, w = offset; base < to; base += 64, w++) {
+                int end = Math.min(64, to - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    double v = values[base + b];
+                    word |= ((v >= lo) & (v <= hi) ? 1L : 0L) << b;
+                }
+                out[w] = word;
+            }
+        }
+    }
+
+    // Rows whose player, team or position id is accepted
+    private static final class IdFilter extends Filter {
+        private final int[] ids;
+        private final boolean[] accepted;
+
+        IdFilter(int[] ids, boolean[] accepted) {
+            this.ids = ids;
+            this.accepted = accepted;
+        }
+
+        @Override
+        void eval(int from, int to, long[] out, int offset, long[][] scratch, int level) {
+            int[] ids = this.ids;
+            boolean[] accepted = this.accepted;
+            for (int base = from, w = offset; base < to; base += 64, w++) {
+                int end = Math.min(64, to - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    word |= (accepted[ids[base + b]] ? 1L : 0L) << b;
+                }
+                out[w] = word;
+            }
+        }
+    }
+
+    /** Per-block min and max of a column's first rows values, NaN aside; shared per array. */
+    private static final class ZoneMap {
+        private static final Map<double[], ZoneMap> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+        final int rows;
+        final double[] min;
+        final double[] max;
+        final boolean[] nan;
+
+        private ZoneMap(double[] values, int rows) {
+            this.rows = rows;
+            int blocks = (rows + BLOCK - 1) / BLOCK;
+            min = new double[blocks];
+            max = new double[blocks];
+            nan = new boolean[blocks];
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                double lo = Double.POSITIVE_INFINITY;
+                double hi = Double.NEGATIVE_INFINITY;
+                boolean sawNaN = false;
+                for (int row = b * BLOCK, end = Math.min(row + BLOCK, rows); row < end; row++) {
+                    double v = values[row];
+                    if (v != v) {
+                        sawNaN = true;
+                    } else {
+                        lo = Math.min(lo, v);
+                        hi = Math.max(hi, v);
+                    }
+                }
+                min[b] = lo;
+                max[b] = hi;
+                nan[b] = sawNaN;
+            });
+        }
+
+        // Arrays are keyed by identity; rescored stores share all but the score column
+        static ZoneMap of(double[] values, int rows) {
+            ZoneMap zones = CACHE.get(values);
+            if (zones == null || zones.rows != rows) {
+                try (Metrics.Timer timer = Metrics.start("query:zonemap")) {
+                    timer.rows(rows);
+                    zones = new ZoneMap(values, rows);
+                }
+                CACHE.put(values, zones);
+            }
+            return zones;
+        }
+    }
+
+    // ---- Fields
+
+    private enum Field {
+        PTS(PlayerStore.POINTS, "PTS", "POINTS"),
+        AST(PlayerStore.ASSISTS, "AST", "ASSISTS"),
+        TRB(PlayerStore.REBOUNDS, "TRB", "REB", "REBOUNDS"),
+        STL(PlayerStore.STEALS, "STL", "STEALS"),
+        BLK(PlayerStore.BLOCKS, "BLK", "BLOCKS"),
+        MVP_SCORE(PlayerStore.MVP_SCORE, "MVP_SCORE", "MVP", "SCORE"),
+        G(PlayerStore.GAMES, "G", "GAMES"),
+        FGA(PlayerStore.FGA, "FGA"),
+        FTA(PlayerStore.FTA, "FTA"),
+        TOV(PlayerStore.TOV, "TOV"),
+        PLAYER(PlayerStore.PLAYER_NAME, "PLAYER", "NAME"),
+        TEAM(-1, "TEAM", "TM"),
+        POS(-1, "POS", "POSITION");
+
+        final int column;
+        final String[] names;
+
+        Field(int column, String... names) {
+            this.column = column;
+            this.names = names;
+        }
+
+        boolean numeric() {
+            return column >= 0 && column < PlayerStore.STAT_COUNT;
+        }
+
+        boolean raw() {
+            return column >= PlayerStore.GAMES && column < PlayerStore.STAT_COUNT || this == POS;
+        }
+
+        static Field named(String name) {
+            for (Field field : values()) {
+                for (String alias : field.names) {
+                    if (alias.equalsIgnoreCase(name)) return field;
+                }
+            }
+            return null;
+        }
+
+        int[] ids(PlayerStore store) {
+            switch (this) {
+                case PLAYER: return store.playerIds();
+                case TEAM: return store.teamIds();
+                default: return store.positionIds();
+            }
+        }
+
+        int idCount(PlayerStore store) {
+            switch (this) {
+                case PLAYER: return store.playerCount();
+                case TEAM: return store.teamCount();
+                default: return store.positionCount();
+            }
+        }
+
+        String idName(PlayerStore store, int id) {
+            switch (this) {
+                case PLAYER: return store.playerName(id);
+                case TEAM: return store.teamName(id);
+                default: return store.positionName(id);
+            }
+        }
+
+        void check(PlayerStore store) {
+            if (raw() && !store.hasRawStats()) {
+                throw new IllegalArgumentException(names[0] + " needs a raw per-game file");
+            }
+        }
+    }
+
+    // value < lo or value > hi, so NaN stays unmatched
+    private static Condition outside(Field field, double lo, double hi) {
+        Condition below = range(field, Double.NEGATIVE_INFINITY, Math.nextDown(lo));
+        Condition above = range(field, Math.nextUp(hi), Double.POSITIVE_INFINITY);
+        return store -> new OrFilter(below.compile(store), above.compile(store));
+    }
+
+    private static Condition range(Field field, double lo, double hi) {
+        return store -> {
+            field.check(store);
+            return new RangeFilter(store.column(field.column), store.size(), lo, hi);
+        };
+    }
+
+    // Names accepted by equality (any of values) or, with contains, by lowercase substring
+    private static Condition names(Field field, List<String> values, boolean contains) {
+        return store -> {
+            field.check(store);
+            boolean[] accepted = new boolean[field.idCount(store)];
+            for (int id = 0; id < accepted.length; id++) {
+                String name = contains ? field.idName(store, id).toLowerCase() : field.idName(store, id);
+                for (String value : values) {
+                    if (contains ? name.contains(value) : name.equalsIgnoreCase(value)) {
+                        accepted[id] = true;
+                        break;
+                    }
+                }
+            }
+            return new IdFilter(field.ids(store), accepted);
+        };
+    }
+
+    // ---- Parsing
+
+    private static final Pattern NUMBER = Pattern.compile("-?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+        // Current token: kind is 'w' (word), 'n' (number), 's' (string), 'o' (operator), a
+        // punctuation character, or 0 at the end
+        private char kind;
+        private String token;
+        private int tokenStart;
+        private final Set<Field> fields = EnumSet.noneOf(Field.class);
+
+        Parser(String text) throws ParseException {
+            this.text = text;
+            next();
+        }
+
+        StatQuery query() throws ParseException {
+            Condition where = null;
+            if (keyword("WHERE") || !(isKeyword("ORDER") || isKeyword("LIMIT") || kind == 0)) {
+                where = condition();
+            }
+            int orderColumn = -1;
+            boolean ascending = false;
+            if (keyword("ORDER")) {
+                expectKeyword("BY");
+                if (kind == 'w' && Field.named(token) != null && Field.named(token).column < 0) {
+                    throw error("Cannot order by " + token);
+                }
+                Field field = field();
+                orderColumn = field.column;
+                if (keyword("ASC")) {
+                    ascending = true;
+                } else {
+                    keyword("DESC");
+                }
+            }
+            int limit = -1;
+            if (keyword("LIMIT")) {
+                if (kind != 'n' || !token.matches("\\d+")) throw error("Expected a row count after LIMIT");
+                try {
+                    limit = Integer.parseInt(token);
+                } catch (NumberFormatException e) {
+                    throw error("LIMIT is too large");
+                }
+                if (limit == 0) throw error("LIMIT must be at least 1");
+                next();
+            }
+            if (kind != 0) throw error("Unexpected '" + token + "'");
+            return new StatQuery(text.trim(), where, fields, orderColumn, ascending, limit);
+        }
+
+        private Condition condition() throws ParseException {
+            Condition left = term();
+            while (keyword("OR")) {
+                Condition l = left;
+                Condition r = term();
+                left = store -> new OrFilter(l.compile(store), r.compile(store));
+            }
+            return left;
+        }
+
+        private Condition term() throws ParseException {
+            Condition left = factor();
+            while (keyword("AND")) {
+                Condition l = left;
+                Condition r = factor();
+                left = store -> new AndFilter(l.compile(store), r.compile(store));
+            }
+            return left;
+        }
+
+        private Condition factor() throws ParseException {
+            if (keyword("NOT")) {
+                return not(factor());
+            }
+            if (kind == '(') {
+                next();
+                Condition inner = condition();
+                expect(')');
+                return inner;
+            }
+            return comparison();
+        }
+
+        private Condition comparison() throws ParseException {
+            String name = token;
+            Field field = field();
+            boolean negated = keyword("NOT");
+            if (field.numeric()) {
+                if (keyword("BETWEEN")) {
+                    double lo = number();
+                    expectKeyword("AND");
+                    double hi = number();
+                    return negated ? outside(field, lo, hi) : range(field, lo, hi);
+                }
+                if (negated) throw error("Expected BETWEEN after NOT");
+                String op = operator();
+                double x = number();
+                switch (op) {
+                    case "<": return range(field, Double.NEGATIVE_INFINITY, Math.nextDown(x));
+                    case "<=": return range(field, Double.NEGATIVE_INFINITY, x);
+                    case ">": return range(field, Math.nextUp(x), Double.POSITIVE_INFINITY);
+                    case ">=": return range(field, x, Double.POSITIVE_INFINITY);
+                    case "=": case "==": return range(field, x, x);
+                    default: return outside(field, x, x);
+                }
+            }
+
+            Condition match;
+            if (keyword("IN")) {
+                expect('(');
+                List<String> values = new ArrayList<>();
+                values.add(value());
+                while (kind == ',') {
+                    next();
+                    values.add(value());
+                }
+                expect(')');
+                match = names(field, values, false);
+            } else if (keyword("CONTAINS")) {
+                if (field != Field.PLAYER) throw error("CONTAINS only applies to Player, not " + name);
+                match = names(field, Collections.singletonList(value().toLowerCase()), true);
+            } else {
+                if (negated) throw error("Expected IN or CONTAINS after NOT");
+                if (kind == 'o' && !token.startsWith("=") && !token.equals("!=") && !token.equals("<>")) {
+                    throw error(name + " can only be compared with =, != or IN");
+                }
+                String op = operator();
+                match = names(field, Collections.singletonList(value()), false);
+                negated = !op.startsWith("=");
+            }
+            return negated ? not(match) : match;
+        }
+
+        private static Condition not(Condition inner) {
+            return store -> new NotFilter(inner.compile(store));
+        }
+
+        private Field field() throws ParseException {
+            if (kind != 'w') throw error("Expected a field name");
+            Field field = Field.named(token);
+            if (field == null) throw error("Unknown field '" + token + "'");
+            fields.add(field);
+            next();
+            return field;
+        }
+
+        private String operator() throws ParseException {
+            if (kind != 'o') throw error("Expected a comparison operator");
+            String op = token;
+            next();
+            return op;
+        }
+
+        private double number() throws ParseException {
+            if (kind != 'n') throw error("Expected a number");
+            double value = Double.parseDouble(token);
+            next();
+            return value;
+        }
+
+        private String value() throws ParseException {
+            if (kind != 'w' && kind != 's' && kind != 'n') throw error("Expected a value");
+            String value = token;
+            next();
+            return value;
+        }
+
+        private boolean isKeyword(String word) {
+            return kind == 'w' && token.equalsIgnoreCase(word);
+        }
+
+        private boolean keyword(String word) throws ParseException {
+            if (!isKeyword(word)) return false;
+            next();
+            return true;
+        }
+
+        private void expectKeyword(String word) throws ParseException {
+            if (!keyword(word)) throw error("Expected " + word);
+        }
+
+        private void expect(char punctuation) throws ParseException {
+            if (kind != punctuation) throw error("Expected '" + punctuation + "'");
+            next();
+        }
+
+        private ParseException error(String message) {
+            return new ParseException(message + (kind == 0 ? " at end of query" : " at column " + (tokenStart + 1)));
+        }
+
+        private void next() throws ParseException {
+            int n = text.length();
+            while (pos < n && Character.isWhitespace(text.charAt(pos))) pos++;
+            tokenStart = pos;
+            if (pos == n) {
+                kind = 0;
+                token = "";
+                return;
+            }
+            char c = text.charAt(pos);
+            if (c == '(' || c == ')' || c == ',') {
+                kind = c;
+                token = String.valueOf(c);
+                pos++;
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, pos + 1);
+                if (end < 0) throw new ParseException("Unterminated string at column " + (pos + 1));
+                kind = 's';
+                token = text.substring(pos + 1, end);
+                pos = end + 1;
+            } else if ("<>=!".indexOf(c) >= 0) {
+                int end = pos + 1;
+                if (end < n && (text.charAt(end) == '=' || c == '<' && text.charAt(end) == '>')) end++;
+                token = text.substring(pos, end);
+                if (token.equals("!")) throw new ParseException("Expected != at column " + (pos + 1));
+                kind = 'o';
+                pos = end;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-') {
+                int end = pos + 1;
+                // Signs only inside exponents of numbers, hyphens inside words (SF-PF)
+                while (end < n && (Character.isLetterOrDigit(text.charAt(end)) || "_.".indexOf(text.charAt(end)) >= 0
+                        || "+-".indexOf(text.charAt(end)) >= 0 && "eE".indexOf(text.charAt(end - 1)) >= 0
+                            && Character.isDigit(c)
+                        || text.charAt(end) == '-' && Character.isLetter(c))) {
+                    end++;
+                }
+                token = text.substring(pos, end);
+                kind = NUMBER.matcher(token).matches() ? 'n' : 'w';
+                pos = end;
+            } else {
+                throw new ParseException("Unexpected '" + c + "' at column " + (pos + 1));
+            }
+        }
+    }
+}
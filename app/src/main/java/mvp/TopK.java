@@ -0,0 +1,137 @@
+package mvp;
+
+import java.util.Arrays;
+
+/**
+ * Bounded heap of the k best rows by a double key, in primitive arrays.
+ *
+ * The root is the worst row kept, so each offer is O(1) when the row does
+ * not qualify and O(log k) when it does; memory stays O(k) however many
+ * rows stream through. Ties rank the lower row index first, matching the
+ * stable sorts used elsewhere, so results agree with PlayerStore.sort.
+ */
+class TopK {
+    private final int k;
+    private final boolean ascending;
+    private final double[] keys;
+    private final int[] rows;
+    private int size;
+
+    /**
+     * @param ascending true to keep the k smallest keys, false for the k largest
+     */
+    TopK(int k, boolean ascending) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.ascending = ascending;
+        this.keys = new double[k];
+        this.rows = new int[k];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /** Offers rows from..to-1, keyed by keys[row]. */
+    void offerRange(double[] keys, int from, int to) {
+        for (int row = from; row < to; row++) {
+            offer(row, keys[row]);
+        }
+    }
+
+    /** Offers the given rows, keyed by keys[row]. */
+    void offerRows(double[] keys, int[] rows) {
+        for (int row : rows) {
+            offer(row, keys[row]);
+        }
+    }
+
+    void offer(int row, double key) {
+        if (size < k) {
+            keys[size] = key;
+            rows[size] = row;
+            siftUp(size++);
+        } else if (worse(keys[0], rows[0], key, row)) {
+            keys[0] = key;
+            rows[0] = row;
+            siftDown(0);
+        }
+    }
+
+    /** The kept rows, best first. */
+    int[] toSortedRows() {
+        // Pop a copy of the heap; the worst comes out first
+        double[] heapKeys = Arrays.copyOf(keys, size);
+        int[] heapRows = Arrays.copyOf(rows, size);
+        TopK copy = new TopK(k, ascending, heapKeys, heapRows, size);
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = copy.rows[0];
+            copy.removeRoot();
+        }
+        return sorted;
+    }
+
+    private TopK(int k, boolean ascending, double[] keys, int[] rows, int size) {
+        this.k = k;
+        this.ascending = ascending;
+        this.keys = keys;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    private void removeRoot() {
+        size--;
+        if (size > 0) {
+            keys[0] = keys[size];
+            rows[0] = rows[size];
+            siftDown(0);
+        }
+    }
+
+    // True if (keyA, rowA) ranks below (keyB, rowB)
+    private boolean worse(double keyA, int rowA, double keyB, int rowB) {
+        int c = Double.compare(keyA, keyB);
+        if (c == 0) return rowA > rowB;
+        return ascending ? c > 0 : c < 0;
+    }
+
+    private void siftUp(int i) {
+        double key = keys[i];
+        int row = rows[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(key, row, keys[parent], rows[parent])) break;
+            keys[i] = keys[parent];
+            rows[i] = rows[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        rows[i] = row;
+    }
+
+    private void siftDown(int i) {
+        double key = keys[i];
+        int row = rows[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && worse(keys[right], rows[right], keys[child], rows[child])) {
+                child = right;
+            }
+            if (!worse(keys[child], rows[child], key, row)) break;
+            keys[i] = keys[child];
+            rows[i] = rows[child];
+            i = child;
+        }
+        keys[i] = key;
+        rows[i] = row;
+    }
+}
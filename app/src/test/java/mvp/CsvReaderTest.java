@@ -0,0 +1,229 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvReaderTest {
+    @TempDir
+    Path dir;
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, bytes);
+        return file;
+    }
+
+    private Path write(String name, String text) throws IOException {
+        return write(name, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Every record after the header, each as its decoded fields
+    private static List<List<String>> readAll(CsvReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        while (reader.next()) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < reader.fieldCount(); i++) {
+                fields.add(reader.getString(i));
+            }
+            records.add(fields);
+        }
+        return records;
+    }
+
+    private static String quote(String field) {
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        Path file = write("quoted.csv", "Player,Tm,Note\n"
+            + "\"Doncic, Luka\",DAL,\"He said \"\"MVP\"\"\"\n"
+            + "\"\",\"\"\"\",\"two\nlines\"\n"
+            + "Nikola Jokić,DEN,\n");
+        try (CsvReader reader = new CsvReader(file)) {
+            assertArrayEquals(new String[] {"Player", "Tm", "Note"}, reader.header());
+            assertEquals(Arrays.asList(
+                Arrays.asList("Doncic, Luka", "DAL", "He said \"MVP\""),
+                Arrays.asList("", "\"", "two\nlines"),
+                Arrays.asList("Nikola Jokić", "DEN", "")), readAll(reader));
+        }
+    }
+
+    @Test
+    void byteOrderMarkIsNotPartOfTheFirstColumn() throws IOException {
+        byte[] text = "Player,PTS\nJokic,26.4\n".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[text.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, bytes, 3, text.length);
+        try (CsvReader reader = new CsvReader(write("bom.csv", bytes))) {
+            assertEquals(0, reader.column("Player"));
+            assertTrue(reader.next());
+            assertEquals("Jokic", reader.getString(0));
+            assertEquals(26.4, reader.getDouble(1));
+        }
+    }
+
+    @Test
+    void crlfAndBlankLinesAreSkipped() throws IOException {
+        Path file = write("crlf.csv", "Player,PTS\r\n\r\nJokic,26.4\r\n\n\rDoncic,33.9");
+        try (CsvReader reader = new CsvReader(file)) {
+            assertEquals(Arrays.asList(Arrays.asList("Jokic", "26.4"), Arrays.asList("Doncic", "33.9")),
+                readAll(reader));
+            assertEquals(reader.length(), reader.position());
+        }
+    }
+
+    @Test
+    void blankAndAbsentFieldsUseTheDefault() throws IOException {
+        try (CsvReader reader = new CsvReader(write("blank.csv", "A,B,C\n1,  ,\n"))) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.getDouble(0, -1));
+            assertEquals(-1, reader.getDouble(1, -1));
+            assertEquals(-1, reader.getDouble(2, -1));
+            assertEquals(-1, reader.getDouble(7, -1));
+            assertThrows(NumberFormatException.class, () -> reader.getDouble(1));
+            assertThrows(NumberFormatException.class, () -> reader.getDouble(7));
+        }
+    }
+
+    @Test
+    void recordsCrossingTheMappingWindowReadTheSame() throws IOException {
+        SplittableRandom random = new SplittableRandom(1);
+        String alphabet = "abc ,\"\né0123456789";
+        List<List<String>> expected = new ArrayList<>();
+        StringBuilder text = new StringBuilder("Player,Tm,Note\n");
+        for (int row = 0; row < 500; row++) {
+            List<String> fields = new ArrayList<>();
+            for (int column = 0; column < 3; column++) {
+                StringBuilder field = new StringBuilder();
+                for (int n = random.nextInt(12); n > 0; n--) {
+                    field.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                fields.add(field.toString());
+                if (column > 0) text.append(',');
+                text.append(quote(field.toString()));
+            }
+            expected.add(fields);
+            text.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        Path file = write("window.csv", text.toString());
+
+        // Records are at most ~85 bytes, so every window size here splits many of them
+        for (long window : new long[] {128, 131, 200, 1000, 1 << 20}) {
+            try (CsvReader reader = new CsvReader(file, window)) {
+                assertEquals(expected, readAll(reader), "window " + window);
+            }
+        }
+    }
+
+    @Test
+    void numbersCrossingTheMappingWindowParseTheSame() throws IOException {
+        StringBuilder text = new StringBuilder("PTS,AST\n");
+        for (int row = 0; row < 1000; row++) {
+            text.append(row).append('.').append(row % 10).append(',').append(row * 7 % 13).append('\n');
+        }
+        Path file = write("numbers.csv", text.toString());
+        for (long window : new long[] {16, 17, 23}) {
+            try (CsvReader reader = new CsvReader(file, window)) {
+                for (int row = 0; row < 1000; row++) {
+                    assertTrue(reader.next());
+                    assertEquals(Double.parseDouble(row + "." + row % 10), reader.getDouble(0));
+                    assertEquals(row * 7 % 13, reader.getDouble(1));
+                }
+                assertFalse(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void recordLargerThanTheWindowIsAnError() throws IOException {
+        char[] wide = new char[100];
+        Arrays.fill(wide, 'x');
+        Path file = write("wide.csv", "A\nshort\n" + new String(wide) + "\n");
+        try (CsvReader reader = new CsvReader(file, 64)) {
+            assertTrue(reader.next());
+            IOException e = assertThrows(IOException.class, reader::next);
+            assertTrue(e.getMessage().contains("exceeds the 64 byte mapping window"), e.getMessage());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        try (CsvReader reader = new CsvReader(write("open.csv", "A,B\n1,\"abc\n"))) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void doublesMatchDoubleParseDouble() throws IOException {
+        List<String> values = new ArrayList<>(Arrays.asList(
+            "0", "-0", "+0", "0.0", "-0.0", "1", "+1", "-1", ".5", "5.", "-.25", "007.50",
+            "0.1", "0.3", "2.675", "26.4", "33.9", "123456789012345", "1234567890123456",
+            "12345678901234567890", "0.000000000000000000001", "9007199254740993",
+            "1e22", "1e23", "1e-22", "1e-23", "1.5E3", "2.5e+4", "-3.25e-2", "4.9e-324",
+            "1.7976931348623157e308", "1e400", "123.456e-300", "  42  ", "0.1000000000000000055511151231257827",
+            "NaN", "-Infinity", "0x1p3"));
+        SplittableRandom random = new SplittableRandom(2);
+        for (int n = 0; n < 20000; n++) {
+            StringBuilder value = new StringBuilder();
+            if (random.nextInt(4) == 0) value.append('-');
+            int whole = random.nextInt(10);
+            int fraction = random.nextInt(10);
+            for (int i = 0; i < whole; i++) value.append((char) ('0' + random.nextInt(10)));
+            if (fraction > 0 || whole == 0) {
+                value.append('.');
+                for (int i = 0; i < Math.max(fraction, 1); i++) value.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(3) == 0) value.append('e').append(random.nextInt(-30, 31));
+            values.add(value.toString());
+        }
+
+        StringBuilder text = new StringBuilder("Value,Quoted\n");
+        for (String value : values) {
+            text.append(value).append(',').append(quote(value)).append('\n');
+        }
+        try (CsvReader reader = new CsvReader(write("doubles.csv", text.toString()))) {
+            for (String value : values) {
+                assertTrue(reader.next());
+                double expected = Double.parseDouble(value.trim());
+                assertEquals(expected, reader.getDouble(0), value);
+                assertEquals(expected, reader.getDouble(1), value);
+            }
+        }
+    }
+
+    @Test
+    void malformedNumbersThrow() throws IOException {
+        try (CsvReader reader = new CsvReader(write("bad.csv", "A,B,C,D\n1.2.3,-,e5,1e\n"))) {
+            assertTrue(reader.next());
+            for (int field = 0; field < 4; field++) {
+                int f = field;
+                assertThrows(NumberFormatException.class, () -> reader.getDouble(f), reader.getString(f));
+            }
+        }
+    }
+
+    @Test
+    void seekContinuesAtARecordBoundary() throws IOException {
+        String head = "Player,PTS\nJokic,26.4\n";
+        Path file = write("seek.csv", head + "Doncic,33.9\nBrunson,28.7\n");
+        try (CsvReader reader = new CsvReader(file, 16)) {
+            reader.seek(head.getBytes(StandardCharsets.UTF_8).length);
+            assertEquals(Arrays.asList(Arrays.asList("Doncic", "33.9"), Arrays.asList("Brunson", "28.7")),
+                readAll(reader));
+            assertEquals(2, reader.lineNumber());
+        }
+    }
+}
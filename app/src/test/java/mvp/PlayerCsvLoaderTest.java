@@ -0,0 +1,52 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PlayerCsvLoaderTest {
+    private static final String RAW_HEADER = "Player,Team,Pos,G,FGA,FTA,TOV,PTS,AST,TRB,STL,BLK\n";
+
+    @TempDir
+    Path dir;
+
+    private PlayerStore load(String text) throws IOException {
+        Path file = dir.resolve("players.csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return PlayerCsvLoader.load(file);
+    }
+
+    @Test
+    void malformedRawFieldsDropTheWholeRow() throws IOException {
+        PlayerStore store = load(RAW_HEADER
+            + "Nikola Jokic,DEN,C,79,18.1,6.1,3.0,26.4,9.0,12.4,1.4,0.9\n"
+            + "Bad Shooter,DAL,PG,70,x,8.0,4.0,33.9,9.8,9.2,1.4,0.5\n"
+            + "Bad Games,NYK,PG,7x,19.1,8.0,2.4,28.7,6.7,3.6,0.9,0.2\n"
+            + "Jayson Tatum,BOS,PF,74,19.3,5.9,2.5,26.9,4.9,8.1,1.0,0.6\n");
+        assertEquals(2, store.size());
+        assertEquals("Nikola Jokic", store.name(0));
+        assertEquals("Jayson Tatum", store.name(1));
+        assertEquals("PF", store.position(1));
+        assertEquals(74, store.get(PlayerStore.GAMES, 1));
+        assertEquals(19.3, store.get(PlayerStore.FGA, 1));
+    }
+
+    @Test
+    void fileWithNoValidRowsLoadsEmpty() throws IOException {
+        PlayerStore store = load(RAW_HEADER + "Bad Shooter,DAL,PG,70,x,8.0,4.0,33.9,9.8,9.2,1.4,0.5\n");
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void missingScoreUsesTheDefaultWeights() throws IOException {
+        PlayerStore store = load("Player,Team,PTS,AST,TRB,STL,BLK\nNikola Jokic,DEN,26.4,9.0,12.4,1.4,0.9\n");
+        double[] w = MVPScorer.DEFAULT_WEIGHTS;
+        assertEquals(26.4 * w[0] + 9.0 * w[1] + 12.4 * w[2] + 1.4 * w[3] + 0.9 * w[4],
+            store.get(PlayerStore.MVP_SCORE, 0));
+    }
+}
@@ -0,0 +1,200 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PlayerSnapshotTest {
+    private static final String RAW_HEADER = "Player,Team,Pos,G,FGA,FTA,TOV,PTS,AST,TRB,STL,BLK\n";
+    private static final String[] TEAMS = {"DEN", "DAL", "NYK", "PHI", "BOS", "OKC"};
+    private static final String[] POSITIONS = {"PG", "SG", "SF", "PF", "C"};
+
+    @TempDir
+    Path dir;
+
+    // Raw per-game rows; every few rows have too few games and are dropped on load
+    private static String rawRows(int from, int to, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder text = new StringBuilder();
+        for (int row = from; row < to; row++) {
+            text.append(row % 3 == 0 ? "\"Player, " + row + "\"" : "Player " + row).append(',')
+                .append(TEAMS[row % TEAMS.length]).append(',')
+                .append(POSITIONS[row % POSITIONS.length]).append(',')
+                .append(row % 7 == 0 ? 12 : 20 + random.nextInt(63));
+            for (int stat = 0; stat < 8; stat++) {
+                text.append(',').append(random.nextInt(300) / 10.0);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private Path write(String name, String text) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private static void assertSameStore(PlayerStore expected, PlayerStore actual) {
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.hasRawStats(), actual.hasRawStats());
+        int columns = expected.hasRawStats() ? PlayerStore.STAT_COUNT : PlayerStore.MVP_SCORE + 1;
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.name(row), actual.name(row));
+            assertEquals(expected.team(row), actual.team(row));
+            assertEquals(expected.position(row), actual.position(row));
+            for (int column = 0; column < columns; column++) {
+                assertEquals(expected.get(column, row), actual.get(column, row), "column " + column + ", row " + row);
+            }
+        }
+    }
+
+    @Test
+    void rawStoreRoundTrips() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 200, 1));
+        PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(source);
+        PlayerStore store = PlayerCsvLoader.load(source);
+        assertTrue(store.hasRawStats());
+
+        PlayerSnapshot.write(source, signature, store);
+        assertTrue(Files.isRegularFile(PlayerSnapshot.pathFor(source)));
+        assertSameStore(store, PlayerSnapshot.read(source, signature));
+    }
+
+    @Test
+    void scoreOnlyStoreRoundTrips() throws IOException {
+        Path source = write("scores.csv", "Player,Team,PTS,AST,TRB,STL,BLK,MVP_Score\n"
+            + "Luka Dončić,DAL,2370.0,686.0,647.0,99.0,38.0,1228.3000000000002\n"
+            + "Nikola Jokić,DEN,2085.0,708.0,976.0,108.0,68.0,1188.3999999999999\n"
+            + "\"Gilgeous-Alexander, Shai\",OKC,2254,465,415,150,67,NaN\n");
+        PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(source);
+        PlayerStore store = PlayerCsvLoader.load(source);
+        assertFalse(store.hasRawStats());
+
+        PlayerSnapshot.write(source, signature, store);
+        assertSameStore(store, PlayerSnapshot.read(source, signature));
+    }
+
+    @Test
+    void staleOrDamagedSnapshotsAreIgnored() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 50, 2));
+        PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(source);
+        PlayerSnapshot.write(source, signature, PlayerCsvLoader.load(source));
+        Path snapshot = PlayerSnapshot.pathFor(source);
+
+        PlayerSnapshot.Signature other = new PlayerSnapshot.Signature(signature.size, signature.modified + 1,
+            signature.head, signature.tail);
+        assertNull(PlayerSnapshot.read(source, other));
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(PlayerSnapshot.read(source, signature));
+
+        bytes[4]++; // format version
+        Files.write(snapshot, bytes);
+        assertNull(PlayerSnapshot.read(source, signature));
+
+        Files.delete(snapshot);
+        assertNull(PlayerSnapshot.read(source, signature));
+    }
+
+    @Test
+    void loadWritesASnapshotThatLaterLoadsUse() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 100, 3));
+        PlayerSnapshot.Signature signature = PlayerSnapshot.Signature.of(source);
+        PlayerStore parsed = PlayerSnapshot.load(source, signature, null);
+        assertSameStore(parsed, PlayerSnapshot.read(source, signature));
+        assertSameStore(parsed, PlayerSnapshot.load(source, signature, null));
+    }
+
+    @Test
+    void appendedRecordsAreDetected() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 20, 4));
+        PlayerSnapshot.Signature before = PlayerSnapshot.Signature.of(source);
+        append(source, rawRows(20, 25, 5));
+        assertTrue(before.isPrefixOf(source, PlayerSnapshot.Signature.of(source)));
+
+        // Nothing appended
+        assertFalse(before.isPrefixOf(source, before));
+    }
+
+    @Test
+    void editsThatAreNotAppendsAreDetected() throws IOException {
+        String text = RAW_HEADER + rawRows(0, 20, 6);
+
+        // A changed byte inside the old contents
+        Path edited = write("edited.csv", text);
+        PlayerSnapshot.Signature before = PlayerSnapshot.Signature.of(edited);
+        write("edited.csv", text.replaceFirst("Player 1,", "Player 9,") + rawRows(20, 25, 7));
+        assertFalse(before.isPrefixOf(edited, PlayerSnapshot.Signature.of(edited)));
+
+        // The last old record was incomplete, so the append extends it
+        Path unterminated = write("unterminated.csv", text.substring(0, text.length() - 1));
+        before = PlayerSnapshot.Signature.of(unterminated);
+        append(unterminated, "\n" + rawRows(20, 25, 8));
+        assertFalse(before.isPrefixOf(unterminated, PlayerSnapshot.Signature.of(unterminated)));
+
+        // Shrunk
+        Path truncated = write("truncated.csv", text);
+        before = PlayerSnapshot.Signature.of(truncated);
+        write("truncated.csv", RAW_HEADER);
+        assertFalse(before.isPrefixOf(truncated, PlayerSnapshot.Signature.of(truncated)));
+    }
+
+    @Test
+    void appendDetectionSamplesTheHeadOfLargeFiles() throws IOException {
+        // Well past the 64 KB samples, so the head CRC is compared on its own
+        String text = RAW_HEADER + rawRows(0, 3000, 9);
+        assertTrue(text.length() > 2 * 64 * 1024);
+        Path source = write("large.csv", text);
+        PlayerSnapshot.Signature before = PlayerSnapshot.Signature.of(source);
+        String more = rawRows(3000, 3010, 10);
+
+        append(source, more);
+        assertTrue(before.isPrefixOf(source, PlayerSnapshot.Signature.of(source)));
+
+        write("large.csv", text.replaceFirst("Player 1,", "Player 9,") + more);
+        assertFalse(before.isPrefixOf(source, PlayerSnapshot.Signature.of(source)));
+    }
+
+    @Test
+    void reloadAfterAppendMatchesAFullLoad() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 300, 11));
+        PlayerSnapshot.Signature before = PlayerSnapshot.Signature.of(source);
+        PlayerStore base = PlayerSnapshot.load(source, before, null);
+
+        append(source, rawRows(300, 340, 12));
+        PlayerSnapshot.Signature after = PlayerSnapshot.Signature.of(source);
+        PlayerStore reloaded = PlayerSnapshot.reload(source, before, after, base);
+
+        PlayerStore full = PlayerCsvLoader.load(source);
+        assertTrue(full.size() > base.size());
+        assertSameStore(full, reloaded);
+        assertSameStore(full, PlayerSnapshot.read(source, after));
+        assertNull(PlayerSnapshot.read(source, before));
+    }
+
+    @Test
+    void reloadAfterAnEditLoadsAfresh() throws IOException {
+        Path source = write("raw.csv", RAW_HEADER + rawRows(0, 100, 13));
+        PlayerSnapshot.Signature before = PlayerSnapshot.Signature.of(source);
+        PlayerStore base = PlayerSnapshot.load(source, before, null);
+
+        write("raw.csv", RAW_HEADER + rawRows(0, 120, 14));
+        PlayerSnapshot.Signature after = PlayerSnapshot.Signature.of(source);
+        assertSameStore(PlayerCsvLoader.load(source), PlayerSnapshot.reload(source, before, after, base));
+    }
+}
@@ -0,0 +1,92 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SeasonStoreTest {
+    private static final String SCORED_HEADER = "Player,Team,PTS,AST,TRB,STL,BLK,MVP_Score\n";
+    private static final String RAW_HEADER = "Player,Team,Pos,G,FGA,FTA,TOV,PTS,AST,TRB,STL,BLK\n";
+
+    @TempDir
+    Path dir;
+
+    private void write(int season, String text) throws IOException {
+        Files.write(dir.resolve("NBA_" + season + "_per_game.csv"), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void tradedPlayersAreRankedOnceByTheirCombinedLine() throws IOException {
+        // Score-only: the combined line has no games column to go by, only its team
+        write(2024, SCORED_HEADER
+            + "Traded Star,TOR,20,5,5,1,1,50\n"
+            + "Traded Star,2TM,25,6,6,1,1,60\n"
+            + "Traded Star,BRK,30,7,7,1,1,70\n"
+            + "Other Player,DEN,22,5,5,1,1,55\n");
+        write(2005, SCORED_HEADER
+            + "Other Player,DEN,22,5,5,1,1,55\n"
+            + "Traded Star,TOT,25,6,6,1,1,40\n"
+            + "Traded Star,MIA,25,6,6,1,1,45\n");
+        SeasonStore seasons = new SeasonStore(dir);
+
+        List<SeasonStore.SeasonLine> star = seasons.history("Traded Star", 2000, 2030);
+        assertEquals(2, star.size());
+        assertEquals(2005, star.get(0).season);
+        assertEquals("TOT", star.get(0).team);
+        assertEquals(2, star.get(0).rank);
+        assertEquals(2, star.get(0).players);
+        assertEquals("2TM", star.get(1).team);
+        assertEquals(60, star.get(1).stats[PlayerStore.MVP_SCORE]);
+        assertEquals(1, star.get(1).rank);
+        assertEquals(2, star.get(1).players);
+
+        // The star's BRK row scores higher, but only the combined line counts
+        List<SeasonStore.SeasonLine> other = seasons.history("Other Player", 2024, 2024);
+        assertEquals(2, other.get(0).rank);
+    }
+
+    @Test
+    void withoutACombinedTeamTheRowWithMostGamesIsUsed() throws IOException {
+        write(2010, RAW_HEADER
+            + "Traded Star,TOR,PG,30,15,5,2,20,5,5,1,1\n"
+            + "Traded Star,BRK,PG,45,15,5,2,30,7,7,1,1\n"
+            + "Other Player,DEN,C,70,15,5,2,22,5,5,1,1\n");
+        SeasonStore.SeasonLine line = new SeasonStore(dir).history("Traded Star", 2010, 2010).get(0);
+        assertEquals("BRK", line.team);
+        assertEquals(30, line.stats[PlayerStore.POINTS]);
+        assertEquals(2, line.players);
+    }
+
+    @Test
+    void historyCoversRangesLongerThanTheCache() throws IOException {
+        for (int season = 1990; season < 2010; season++) {
+            write(season, SCORED_HEADER
+                + "Long Career,DEN,20,5,5,1,1," + season + "\n"
+                + "Rival,BOS,20,5,5,1,1,2000\n");
+        }
+        write(2010, SCORED_HEADER + "Rival,BOS,20,5,5,1,1,2000\n");
+        SeasonStore seasons = new SeasonStore(dir);
+        seasons.season(2005);
+
+        List<SeasonStore.SeasonLine> career = seasons.history("Long Career", 1985, 2015);
+        assertEquals(20, career.size());
+        for (int i = 0; i < career.size(); i++) {
+            SeasonStore.SeasonLine line = career.get(i);
+            assertEquals(1990 + i, line.season);
+            assertEquals(line.season, line.stats[PlayerStore.MVP_SCORE]);
+            assertEquals(line.season >= 2000 ? 1 : 2, line.rank);
+        }
+        assertTrue(seasons.history("Nobody", 1985, 2015).isEmpty());
+    }
+
+    @Test
+    void rollingMeansUseTheSeasonsSoFar() {
+        assertArrayEquals(new double[] {2, 3, 4, 6}, SeasonStore.rolling(new double[] {2, 4, 6, 8}, 3));
+    }
+}
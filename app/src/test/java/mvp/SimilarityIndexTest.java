@@ -0,0 +1,182 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SimilarityIndexTest {
+    private static final String[] TEAMS = {"DEN", "DAL", "NYK", "PHI", "BOS"};
+    private static final String[] POSITIONS = {"PG", "SF", "C"};
+
+    // Raw season with one row per player, named by prefix
+    private static PlayerStore season(String prefix, int players, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] stats = new double[PlayerStore.STAT_COUNT][players];
+        String[] names = new String[players];
+        int[] ids = new int[players];
+        int[] teams = new int[players];
+        int[] positions = new int[players];
+        for (int row = 0; row < players; row++) {
+            for (int column = 0; column < PlayerStore.STAT_COUNT; column++) {
+                stats[column][row] = random.nextInt(1, 300) / 10.0;
+            }
+            names[row] = prefix + row;
+            ids[row] = row;
+            teams[row] = row % TEAMS.length;
+            positions[row] = row % POSITIONS.length;
+        }
+        return PlayerStore.fromColumns(players, stats, ids, teams, positions, names, TEAMS, POSITIONS);
+    }
+
+    // The k nearest by a plain scan in doubles, z-scoring over every row of every store
+    private static List<String> bruteForce(List<PlayerStore> stores, List<String> labels, PlayerStore query, int row,
+            int k) {
+        List<double[]> vectors = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (int s = 0; s < stores.size(); s++) {
+            PlayerStore store = stores.get(s);
+            for (int r = 0; r < store.size(); r++) {
+                vectors.add(vector(store, r));
+                keys.add(s == 0 && store.name(r).equals(query.name(row)) ? null : labels.get(s) + ":" + store.name(r));
+            }
+        }
+        double[] q = vector(query, row);
+        double[] mean = new double[q.length];
+        double[] sd = new double[q.length];
+        for (int f = 0; f < q.length; f++) {
+            for (double[] v : vectors) mean[f] += v[f] / vectors.size();
+            for (double[] v : vectors) sd[f] += (v[f] - mean[f]) * (v[f] - mean[f]) / (vectors.size() - 1);
+            sd[f] = Math.sqrt(sd[f]);
+        }
+        Integer[] order = new Integer[vectors.size()];
+        double[] distances = new double[vectors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            for (int f = 0; f < q.length; f++) {
+                double d = (vectors.get(i)[f] - q[f]) / sd[f];
+                distances[i] += d * d;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+        List<String> nearest = new ArrayList<>();
+        for (int i = 0; nearest.size() < k; i++) {
+            if (keys.get(order[i]) != null) nearest.add(keys.get(order[i]));
+        }
+        return nearest;
+    }
+
+    private static double[] vector(PlayerStore store, int row) {
+        double points = store.get(PlayerStore.POINTS, row);
+        double assists = store.get(PlayerStore.ASSISTS, row);
+        double attempts = 2 * (store.get(PlayerStore.FGA, row) + 0.44 * store.get(PlayerStore.FTA, row));
+        return new double[] {points, assists, store.get(PlayerStore.REBOUNDS, row),
+            store.get(PlayerStore.STEALS, row), store.get(PlayerStore.BLOCKS, row),
+            points / attempts, assists / (store.get(PlayerStore.TOV, row) + 1)};
+    }
+
+    private static List<String> keys(List<SimilarityIndex.Match> matches) {
+        List<String> keys = new ArrayList<>();
+        for (SimilarityIndex.Match match : matches) keys.add(match.label + ":" + match.player);
+        return keys;
+    }
+
+    private static SimilarityIndex index(List<PlayerStore> stores, List<String> labels) {
+        List<SimilarityIndex.Source> sources = new ArrayList<>();
+        for (int s = 0; s < stores.size(); s++) {
+            sources.add(new SimilarityIndex.Source(labels.get(s), stores.get(s)));
+        }
+        return new SimilarityIndex(sources);
+    }
+
+    @Test
+    void nearestMatchesABruteForceScanAndSkipsThePlayerItself() {
+        List<PlayerStore> stores = Arrays.asList(season("Now ", 300, 1), season("Then ", 2000, 2),
+            season("Long ago ", 5000, 3));
+        List<String> labels = Arrays.asList("2024", "2023", "1990");
+        SimilarityIndex index = index(stores, labels);
+        assertEquals(7300, index.size());
+        assertEquals(7, index.dimensions());
+
+        for (int row : new int[] {0, 17, 299}) {
+            List<SimilarityIndex.Match> matches = index.nearest(stores.get(0), row, 10);
+            assertEquals(bruteForce(stores, labels, stores.get(0), row, 10), keys(matches));
+            for (int i = 1; i < matches.size(); i++) {
+                assertTrue(matches.get(i - 1).distance <= matches.get(i).distance);
+            }
+        }
+    }
+
+    @Test
+    void matchesCarryTheirOwnDisplayValues() {
+        PlayerStore then = season("Then ", 50, 4);
+        PlayerStore now = season("Now ", 50, 5);
+        SimilarityIndex index = index(Arrays.asList(now, then), Arrays.asList("2024", "2023"));
+        for (SimilarityIndex.Match match : index.nearest(now, 3, 20)) {
+            PlayerStore store = match.label.equals("2024") ? now : then;
+            int row = store.findPlayer(match.player);
+            assertEquals(store.team(row), match.team);
+            assertEquals(store.get(PlayerStore.MVP_SCORE, row), match.mvpScore);
+            double[] expected = vector(store, row);
+            for (int f = 0; f < expected.length; f++) {
+                assertEquals(expected[f], match.features[f], 1e-4 * Math.abs(expected[f]));
+            }
+        }
+    }
+
+    @Test
+    void withFirstReplacesOnlyTheQuerySource() {
+        PlayerStore then = season("Then ", 500, 6);
+        PlayerStore before = season("Now ", 100, 7);
+        PlayerStore after = season("Now ", 120, 8);
+        SimilarityIndex index = index(Arrays.asList(before, then), Arrays.asList("2024", "2023"));
+        SimilarityIndex updated = index.withFirst(new SimilarityIndex.Source("2024", after));
+        SimilarityIndex fresh = index(Arrays.asList(after, then), Arrays.asList("2024", "2023"));
+
+        assertEquals(620, updated.size());
+        for (int row : new int[] {0, 50, 119}) {
+            assertEquals(keys(fresh.nearest(after, row, 10)), keys(updated.nearest(after, row, 10)));
+        }
+    }
+
+    @Test
+    void scoreOnlySourcesCompareTheSharedStats() {
+        PlayerStore raw = season("Now ", 40, 9);
+        double[][] stats = new double[PlayerStore.STAT_COUNT][];
+        for (int column = 0; column <= PlayerStore.MVP_SCORE; column++) {
+            stats[column] = raw.column(column).clone();
+        }
+        String[] names = new String[raw.size()];
+        for (int row = 0; row < names.length; row++) names[row] = "Copy " + row;
+        PlayerStore scoreOnly = PlayerStore.fromColumns(raw.size(), stats, raw.playerIds().clone(),
+            raw.teamIds().clone(), null, names, TEAMS, new String[0]);
+
+        SimilarityIndex index = index(Arrays.asList(raw, scoreOnly), Arrays.asList("2024", "Old"));
+        assertEquals(5, index.dimensions());
+        // Every player's nearest match is their identical copy
+        for (int row = 0; row < raw.size(); row++) {
+            SimilarityIndex.Match nearest = index.nearest(raw, row, 1).get(0);
+            assertEquals("Copy " + row, nearest.player);
+            assertEquals(0, nearest.distance, 1e-3);
+            assertEquals(5, nearest.features.length);
+        }
+    }
+
+    @Test
+    void emptySourcesAreSkipped() {
+        PlayerStore now = season("Now ", 30, 10);
+        PlayerStore empty = season("None ", 0, 11);
+        PlayerStore then = season("Then ", 30, 12);
+        SimilarityIndex index = index(Arrays.asList(now, empty, empty, then), Arrays.asList("2024", "a", "b", "2022"));
+        List<SimilarityIndex.Match> matches = index.nearest(now, 0, 59);
+        assertEquals(59, matches.size());
+        List<String> labels = new ArrayList<>();
+        for (SimilarityIndex.Match match : matches) labels.add(match.label);
+        assertEquals(29, Collections.frequency(labels, "2024"));
+        assertEquals(30, Collections.frequency(labels, "2022"));
+    }
+}
@@ -0,0 +1,208 @@
+package mvp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class StatQueryTest {
+    private static final String[] PLAYERS = {"Nikola Jokic", "Luka Doncic", "Jalen Brunson", "Joel Embiid", "Jayson Tatum"};
+    private static final String[] TEAMS = {"DEN", "DAL", "NYK", "PHI", "BOS"};
+    private static final String[] POSITIONS = {"C", "PG", "SF"};
+
+    // Rows with random stats; ids cycle so every name appears in every block
+    private static PlayerStore randomStore(int rows, boolean raw, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] stats = new double[PlayerStore.STAT_COUNT][];
+        for (int column = 0; column < PlayerStore.STAT_COUNT; column++) {
+            if (column >= PlayerStore.GAMES && !raw) continue;
+            stats[column] = new double[rows];
+            for (int row = 0; row < rows; row++) {
+                stats[column][row] = Math.floor(random.nextDouble(0, 30) * 10) / 10;
+            }
+        }
+        return store(rows, stats, raw);
+    }
+
+    private static PlayerStore store(int rows, double[][] stats, boolean raw) {
+        int[] players = new int[rows];
+        int[] teams = new int[rows];
+        int[] positions = raw ? new int[rows] : null;
+        for (int row = 0; row < rows; row++) {
+            players[row] = row % PLAYERS.length;
+            teams[row] = (row / 3) % TEAMS.length;
+            if (raw) positions[row] = row % POSITIONS.length;
+        }
+        return PlayerStore.fromColumns(rows, stats, players, teams, positions,
+            PLAYERS, TEAMS, raw ? POSITIONS : new String[0]);
+    }
+
+    private static void assertMatches(PlayerStore store, String query, IntPredicate expected) throws Exception {
+        int[] want = IntStream.range(0, store.size()).filter(expected).toArray();
+        assertArrayEquals(want, StatQuery.parse(query).rows(store), query);
+    }
+
+    private static double pts(PlayerStore store, int row) {
+        return store.get(PlayerStore.POINTS, row);
+    }
+
+    private static double ast(PlayerStore store, int row) {
+        return store.get(PlayerStore.ASSISTS, row);
+    }
+
+    private static double trb(PlayerStore store, int row) {
+        return store.get(PlayerStore.REBOUNDS, row);
+    }
+
+    @Test
+    void andBindsTighterThanOr() throws Exception {
+        PlayerStore s = randomStore(1000, false, 1);
+        assertMatches(s, "PTS > 20 OR AST > 15 AND TRB < 10",
+            r -> pts(s, r) > 20 || (ast(s, r) > 15 && trb(s, r) < 10));
+        assertMatches(s, "AST > 15 AND TRB < 10 OR PTS > 20",
+            r -> (ast(s, r) > 15 && trb(s, r) < 10) || pts(s, r) > 20);
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() throws Exception {
+        PlayerStore s = randomStore(1000, false, 2);
+        assertMatches(s, "(PTS > 20 OR AST > 15) AND TRB < 10",
+            r -> (pts(s, r) > 20 || ast(s, r) > 15) && trb(s, r) < 10);
+        assertMatches(s, "((PTS > 20))", r -> pts(s, r) > 20);
+    }
+
+    @Test
+    void notBindsToTheNextFactor() throws Exception {
+        PlayerStore s = randomStore(1000, false, 3);
+        assertMatches(s, "NOT PTS > 20 AND AST > 15", r -> !(pts(s, r) > 20) && ast(s, r) > 15);
+        assertMatches(s, "NOT (PTS > 20 AND AST > 15)", r -> !(pts(s, r) > 20 && ast(s, r) > 15));
+        assertMatches(s, "NOT NOT PTS > 20", r -> pts(s, r) > 20);
+    }
+
+    @Test
+    void comparisonOperators() throws Exception {
+        PlayerStore s = randomStore(1000, false, 4);
+        assertMatches(s, "PTS < 10", r -> pts(s, r) < 10);
+        assertMatches(s, "PTS <= 10", r -> pts(s, r) <= 10);
+        assertMatches(s, "PTS >= 10", r -> pts(s, r) >= 10);
+        assertMatches(s, "PTS = 10.5", r -> pts(s, r) == 10.5);
+        assertMatches(s, "PTS <> 10.5", r -> pts(s, r) != 10.5);
+    }
+
+    @Test
+    void betweenIsInclusive() throws Exception {
+        PlayerStore s = randomStore(1000, false, 5);
+        assertMatches(s, "PTS BETWEEN 10 AND 12.5", r -> pts(s, r) >= 10 && pts(s, r) <= 12.5);
+        assertMatches(s, "PTS NOT BETWEEN 10 AND 12.5", r -> pts(s, r) < 10 || pts(s, r) > 12.5);
+    }
+
+    @Test
+    void inMatchesAnyValueIgnoringCase() throws Exception {
+        PlayerStore s = randomStore(200, true, 6);
+        assertMatches(s, "Team IN (den, 'DAL')", r -> s.team(r).equals("DEN") || s.team(r).equals("DAL"));
+        assertMatches(s, "Team NOT IN (DEN)", r -> !s.team(r).equals("DEN"));
+        assertMatches(s, "Pos = c", r -> s.position(r).equals("C"));
+        assertMatches(s, "Team IN (XYZ)", r -> false);
+    }
+
+    @Test
+    void containsMatchesPlayerSubstrings() throws Exception {
+        PlayerStore s = randomStore(200, false, 7);
+        assertMatches(s, "Player CONTAINS 'JO'", r -> s.name(r).toLowerCase().contains("jo"));
+        assertMatches(s, "Player NOT CONTAINS son", r -> !s.name(r).contains("son"));
+        assertMatches(s, "Player = \"Luka Doncic\"", r -> s.name(r).equals("Luka Doncic"));
+    }
+
+    @Test
+    void comparisonsNeverMatchNaN() throws Exception {
+        double[][] stats = new double[PlayerStore.STAT_COUNT][];
+        for (int column = 0; column <= PlayerStore.MVP_SCORE; column++) {
+            stats[column] = new double[] {5, Double.NaN, 7, Double.NaN, 5};
+        }
+        PlayerStore s = store(5, stats, false);
+        assertArrayEquals(new int[] {2}, StatQuery.parse("PTS != 5").rows(s));
+        assertArrayEquals(new int[] {2}, StatQuery.parse("PTS NOT BETWEEN 4 AND 6").rows(s));
+        assertArrayEquals(new int[] {0, 2, 4}, StatQuery.parse("PTS >= 0").rows(s));
+        // NOT applied to a condition complements it, NaN rows included
+        assertArrayEquals(new int[] {1, 2, 3}, StatQuery.parse("NOT PTS = 5").rows(s));
+    }
+
+    @Test
+    void zoneMapsSkipAndFillBlocksAtBoundaries() throws Exception {
+        // Clustered values: PTS is the row number, so whole blocks fall inside or outside a range
+        int rows = 3 * StatQuery.BLOCK + 100;
+        double[][] stats = new double[PlayerStore.STAT_COUNT][];
+        for (int column = 0; column <= PlayerStore.MVP_SCORE; column++) {
+            stats[column] = new double[rows];
+        }
+        for (int row = 0; row < rows; row++) {
+            stats[PlayerStore.POINTS][row] = row;
+            stats[PlayerStore.ASSISTS][row] = row % 7;
+        }
+        PlayerStore s = store(rows, stats, false);
+        int b = StatQuery.BLOCK;
+
+        assertMatches(s, "PTS >= 0", r -> true);
+        assertMatches(s, "PTS < 0", r -> false);
+        assertMatches(s, "PTS BETWEEN " + (b - 1) + " AND " + b, r -> r == b - 1 || r == b);
+        assertMatches(s, "PTS BETWEEN " + b + " AND " + (2 * b - 1), r -> r >= b && r < 2 * b);
+        assertMatches(s, "PTS >= " + (3 * b - 5), r -> r >= 3 * b - 5);
+        assertMatches(s, "PTS > " + (rows - 2), r -> r == rows - 1);
+        assertMatches(s, "PTS BETWEEN 100 AND " + (2 * b + 3) + " AND AST = 3",
+            r -> r >= 100 && r <= 2 * b + 3 && r % 7 == 3);
+        assertMatches(s, "PTS < " + b + " OR AST = 0", r -> r < b || r % 7 == 0);
+        assertMatches(s, "NOT PTS BETWEEN " + b + " AND " + (3 * b), r -> r < b || r > 3 * b);
+    }
+
+    @Test
+    void randomQueriesAcrossBlocksMatchRowByRow() throws Exception {
+        PlayerStore s = randomStore(5 * StatQuery.BLOCK + 33, true, 8);
+        assertMatches(s, "PTS > 25 AND AST >= 7 AND Team IN (DEN, DAL)",
+            r -> pts(s, r) > 25 && ast(s, r) >= 7 && (s.team(r).equals("DEN") || s.team(r).equals("DAL")));
+        assertMatches(s, "G > 20 OR NOT (TRB < 5 OR Pos = SF)",
+            r -> s.get(PlayerStore.GAMES, r) > 20 || !(trb(s, r) < 5 || s.position(r).equals("SF")));
+    }
+
+    @Test
+    void orderByAndLimit() throws Exception {
+        StatQuery query = StatQuery.parse("PTS > 1 ORDER BY ast ASC LIMIT 5");
+        assertEquals(PlayerStore.ASSISTS, query.orderColumn);
+        assertTrue(query.ascending);
+        assertEquals(5, query.limit);
+
+        StatQuery bare = StatQuery.parse("ORDER BY Player");
+        assertFalse(bare.hasCondition());
+        assertEquals(PlayerStore.PLAYER_NAME, bare.orderColumn);
+        assertEquals(-1, bare.limit);
+        assertNull(bare.matches(randomStore(10, false, 9)));
+    }
+
+    private static String parseError(String query) {
+        return assertThrows(StatQuery.ParseException.class, () -> StatQuery.parse(query)).getMessage();
+    }
+
+    @Test
+    void parseErrorsPointAtTheProblem() {
+        assertEquals("LIMIT must be at least 1 at column 7", parseError("LIMIT 0"));
+        assertEquals("Expected a row count after LIMIT at column 15", parseError("PTS > 5 LIMIT x"));
+        assertEquals("Unknown field 'Foo' at column 1", parseError("Foo = 3"));
+        assertEquals("Team can only be compared with =, != or IN at column 6", parseError("Team > DEN"));
+        assertEquals("Cannot order by Team at column 10", parseError("ORDER BY Team"));
+        assertEquals("Expected ')' at end of query", parseError("(PTS > 1"));
+        assertEquals("Expected a number at end of query", parseError("PTS >"));
+        assertEquals("Unterminated string at column 1", parseError("'abc"));
+    }
+
+    @Test
+    void rawFieldsAreRejectedOnScoreOnlyStores() throws Exception {
+        PlayerStore scoreOnly = randomStore(10, false, 10);
+        for (String query : new String[] {"ORDER BY G", "PTS > 1 ORDER BY TOV", "FGA > 3", "Pos = C"}) {
+            StatQuery parsed = StatQuery.parse(query);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parsed.check(scoreOnly));
+            assertTrue(e.getMessage().endsWith("needs a raw per-game file"), e.getMessage());
+        }
+        StatQuery.parse("ORDER BY G").check(randomStore(10, true, 11));
+    }
+}
@@ -0,0 +1,39 @@
+package mvp;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Exporting every row in the CSV and JSON layouts to a temporary file. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ExportBenchmark {
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void create() throws IOException {
+        out = Files.createTempFile("mvp_jmh_export_", ".out");
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(out);
+    }
+
+    @Benchmark
+    public long csv(SyntheticData data) throws IOException {
+        PlayerExporter.writeCsv(data.store, data.ranked, out);
+        return Files.size(out);
+    }
+
+    @Benchmark
+    public long json(SyntheticData data) throws IOException {
+        PlayerExporter.writeJson(data.store, data.ranked, out);
+        return Files.size(out);
+    }
+}
@@ -0,0 +1,47 @@
+package mvp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Loading a file as the viewer does: CSV parsing and scoring on the first
+ * load, the memory-mapped snapshot on later ones, and the index build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class LoadBenchmark {
+    private PlayerSnapshot.Signature signature;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot(SyntheticData data) throws IOException {
+        signature = PlayerSnapshot.Signature.of(data.file);
+        PlayerSnapshot.write(data.file, signature, data.store);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot(SyntheticData data) throws IOException {
+        Files.deleteIfExists(PlayerSnapshot.pathFor(data.file));
+    }
+
+    @Benchmark
+    public PlayerStore csv(SyntheticData data) throws IOException {
+        return PlayerCsvLoader.load(data.file);
+    }
+
+    @Benchmark
+    public PlayerStore snapshot(SyntheticData data) {
+        return PlayerSnapshot.read(data.file, signature);
+    }
+
+    @Benchmark
+    public SortIndex index(SyntheticData data) {
+        new NameIndex(data.store);
+        return new SortIndex(data.store);
+    }
+}
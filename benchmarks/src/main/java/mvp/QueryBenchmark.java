@@ -0,0 +1,60 @@
+package mvp;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The viewer's applyFilters path (PlayerQuery): name search, team filter,
+ * sort and top-K. Searches rotate through SEARCHES, none of which contains
+ * the one before it, so NameIndex never answers from its last query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class QueryBenchmark {
+    private static final String[] SEARCHES = {"jo", "son", "luka", "brown", "ja", "cur"};
+
+    private int next;
+
+    private String nextSearch() {
+        String search = SEARCHES[next];
+        next = (next + 1) % SEARCHES.length;
+        return search;
+    }
+
+    @Benchmark
+    public int[] search(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, data.sorted, nextSearch(), null,
+            PlayerStore.MVP_SCORE, false, 0);
+    }
+
+    @Benchmark
+    public int[] team(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, data.sorted, null, "DEN", PlayerStore.POINTS, false, 0);
+    }
+
+    @Benchmark
+    public int[] searchTeamSort(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, data.sorted, nextSearch(), "DEN",
+            PlayerStore.ASSISTS, true, 0);
+    }
+
+    @Benchmark
+    public int[] sortIndexed(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, data.sorted, null, null, PlayerStore.ASSISTS, true, 0);
+    }
+
+    // No sort index, as while a load is still in progress
+    @Benchmark
+    public int[] sortUnindexed(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, null, null, null, PlayerStore.ASSISTS, true, 0);
+    }
+
+    @Benchmark
+    public int[] top10(SyntheticData data) {
+        return PlayerQuery.run(data.store, data.names, null, null, null, PlayerStore.MVP_SCORE, false, 10);
+    }
+}
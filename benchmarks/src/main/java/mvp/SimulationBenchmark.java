@@ -0,0 +1,28 @@
+package mvp;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** MVP odds (MVPSimulator) for the top 500 by basic score, 100,000 trials per operation. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class SimulationBenchmark {
+    private static final int TRIALS = 100000;
+
+    private MVPSimulator simulator;
+
+    @Setup(Level.Trial)
+    public void createSimulator(SyntheticData data) {
+        int[] candidates = MVPSimulator.candidates(MVPScorer.basicScores(data.store, MVPScorer.DEFAULT_WEIGHTS), 500);
+        simulator = new MVPSimulator(data.store, candidates, MVPScorer.DEFAULT_WEIGHTS, 0.1, 0.1);
+    }
+
+    @Benchmark
+    public MVPSimulator.Result simulate() throws InterruptedException {
+        return simulator.run(TRIALS, 42, null);
+    }
+}
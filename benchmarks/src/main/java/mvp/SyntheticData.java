@@ -0,0 +1,122 @@
+package mvp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A generated file in the NBA_2024_per_game.csv layout with the given
+ * number of rows, loaded and indexed once per trial and shared by the
+ * benchmarks. The same seed gives the same file on every run.
+ */
+@State(Scope.Benchmark)
+public class SyntheticData {
+    private static final String HEADER = "Rk,Player,Age,Team,Pos,G,GS,MP,FG,FGA,FG%,3P,3PA,3P%,2P,2PA,2P%,"
+        + "eFG%,FT,FTA,FT%,ORB,DRB,TRB,AST,STL,BLK,TOV,PF,PTS,Trp-Dbl,Awards,Player-additional";
+    private static final String[] TEAMS = {
+        "ATL", "BOS", "BRK", "CHO", "CHI", "CLE", "DAL", "DEN", "DET", "GSW", "HOU", "IND", "LAC", "LAL", "MEM",
+        "MIA", "MIL", "MIN", "NOP", "NYK", "OKC", "ORL", "PHI", "PHO", "POR", "SAC", "SAS", "TOR", "UTA", "WAS", "2TM"
+    };
+    private static final String[] POSITIONS = {"PG", "SG", "SF", "PF", "C", "SF-PF"};
+    private static final String[] FIRST = {
+        "Luka", "Shai", "Giannis", "Nikola", "Jayson", "Joel", "Kevin", "Anthony", "Devin", "Donovan",
+        "Jalen", "Tyrese", "Stephen", "LeBron", "Damian", "Jaylen", "Trae", "De'Aaron", "Zion", "Paolo"
+    };
+    private static final String[] LAST = {
+        "Doncic", "Johnson", "Antetokounmpo", "Jokic", "Tatum", "Embiid", "Durant", "Edwards", "Booker", "Mitchell",
+        "Brunson", "Haliburton", "Curry", "James", "Lillard", "Brown", "Young", "Fox", "Williamson", "Banchero"
+    };
+
+    @Param({"500", "50000", "5000000"})
+    public int rows;
+
+    Path file;
+    PlayerStore store;
+    NameIndex names;
+    SortIndex sorted;
+    // Every row by MVP score, as the viewer shows them unfiltered
+    int[] ranked;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mvp_jmh_" + rows + "_", ".csv");
+        generate(file, rows, 42);
+        store = PlayerCsvLoader.load(file);
+        names = new NameIndex(store);
+        sorted = new SortIndex(store);
+        ranked = PlayerQuery.run(store, names, sorted, null, null, PlayerStore.MVP_SCORE, false, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Writes rows in the per-game dump layout. Names repeat about every 400
+     * rows (20 x 20 combinations) plus a suffix, so the player dictionary
+     * and name search see realistic duplication. Every row has G of 20 or
+     * more and therefore survives the loader's minimum-games cut.
+     */
+    static void generate(Path file, int rows, long seed) throws IOException {
+        SplitMix random = new SplitMix(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < rows; i++) {
+                int games = 20 + random.nextInt(63);
+                double fga = random.nextInt(25 * games);
+                double fta = random.nextInt(10 * games);
+                double pts = fga * 1.1 + fta * 0.8;
+                double trb = random.nextInt(12 * games);
+                double ast = random.nextInt(10 * games);
+                double stl = random.nextInt(2 * games + 1);
+                double blk = random.nextInt(2 * games + 1);
+                double tov = random.nextInt(4 * games + 1);
+
+                line.setLength(0);
+                line.append(i + 1).append(',')
+                    .append(FIRST[random.nextInt(FIRST.length)]).append(' ')
+                    .append(LAST[random.nextInt(LAST.length)]);
+                int suffix = i / 400;
+                if (suffix > 0) line.append(' ').append(suffix);
+                line.append(',').append(19 + random.nextInt(20))
+                    .append(',').append(TEAMS[random.nextInt(TEAMS.length)])
+                    .append(',').append(POSITIONS[random.nextInt(POSITIONS.length)])
+                    .append(',').append(games).append(',').append(random.nextInt(games + 1))
+                    .append(',').append(random.nextInt(38 * games))
+                    .append(',').append((int) (fga * 0.47)).append(',').append((int) fga)
+                    .append(",.470,0,0,.350,0,0,.500,.520,")
+                    .append((int) (fta * 0.78)).append(',').append((int) fta).append(",.780,")
+                    .append((int) (trb * 0.25)).append(',').append((int) (trb * 0.75)).append(',')
+                    .append((int) trb).append(',').append((int) ast).append(',').append((int) stl)
+                    .append(',').append((int) blk).append(',').append((int) tov)
+                    .append(',').append(random.nextInt(3 * games)).append(',').append((int) pts)
+                    .append(",0,,synth").append(i);
+                out.append(line);
+                out.newLine();
+            }
+        }
+    }
+
+    // SplitMix64, kept local so generated files are identical on every JDK
+    private static class SplitMix {
+        private long seed;
+
+        SplitMix(long seed) {
+            this.seed = seed;
+        }
+
+        int nextInt(int bound) {
+            if (bound <= 0) return 0;
+            seed += 0x9e3779b97f4a7c15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            z ^= z >>> 31;
+            return (int) ((z >>> 33) % bound);
+        }
+    }
+}
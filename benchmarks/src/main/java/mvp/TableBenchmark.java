@@ -0,0 +1,53 @@
+package mvp;
+
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Populating the table model with every row and reading each cell once, as
+ * a scroll-through would, and the renderer setup for every cell.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class TableBenchmark {
+    private final PlayerTableModel model = new PlayerTableModel();
+    private JTable table;
+
+    @Setup(Level.Trial)
+    public void createTable(SyntheticData data) {
+        PlayerTableModel shown = new PlayerTableModel();
+        shown.setRows(data.store, data.ranked);
+        table = new JTable(shown);
+        StatCellRenderer.install(table);
+    }
+
+    @Benchmark
+    public long populate(SyntheticData data) {
+        model.setRows(data.store, data.ranked);
+        long hash = 0;
+        for (int r = 0, n = model.getRowCount(); r < n; r++) {
+            for (int c = 0; c < model.getColumnCount(); c++) {
+                hash += model.getValueAt(r, c).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public long render() {
+        long hash = 0;
+        for (int r = 0, n = table.getRowCount(); r < n; r++) {
+            for (int c = 0; c < table.getColumnCount(); c++) {
+                JLabel label = (JLabel) table.prepareRenderer(table.getCellRenderer(r, c), r, c);
+                hash += label.getText().length();
+            }
+        }
+        return hash;
+    }
+}
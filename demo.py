@@ -62,12 +62,12 @@ def main():
     
     print("\n🚀 To run the enhanced applications:")
     print("   Python: source venv/bin/activate && python NBAMVPSORTEREnhanced.py")
-    print("   Java:   java MVPViewerEnhanced")
+    print("   Java:   mvn -B package && java -jar app/target/nba-mvp-ranker.jar")
     
     print("\n📁 Generated Files:")
     print("   • mvp_candidates_enhanced.csv - Complete dataset")
     print("   • mvp_analysis.json - Analysis results")
-    print("   • MVPViewerEnhanced.class - Compiled Java GUI")
+    print("   • app/target/nba-mvp-ranker.jar - Compiled Java GUI")
 
 if __name__ == "__main__":
     main()